@@ -1,6 +1,6 @@
 @echo off
 :: palisades.lakes (at) gmail (dot) com
-:: 2026-05-04
+:: 2026-10-16
 
 set THRUPUT=-server -Xbatch -XX:+UseFMA
 
@@ -9,12 +9,13 @@ set THRUPUT=-server -Xbatch -XX:+UseFMA
 set XMX=
 
 set OPENS=--add-opens java.base/java.lang=ALL-UNNAMED --enable-native-access=ALL-UNNAMED
+set MODULES=--add-modules jdk.incubator.vector
 set ALLOW=--sun-misc-unsafe-memory-access=allow --illegal-native-access=allow
 set CP=-cp target\benchmarks.jar
 
 ::set JAVA_HOME=%JAVA26%
 set JAVA="%JAVA_HOME%\bin\java"
 
-set CMD=%JAVA% %THRUPUT% -ea -dsa %XMX% %OPENS% %ALLOW% %CP% %*
+set CMD=%JAVA% %THRUPUT% -ea -dsa %XMX% %MODULES% %OPENS% %ALLOW% %CP% %*
 echo %CMD%
 %CMD%
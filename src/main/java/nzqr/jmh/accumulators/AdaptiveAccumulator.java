@@ -0,0 +1,234 @@
+package nzqr.jmh.accumulators;
+
+import java.lang.foreign.MemorySegment;
+
+//----------------------------------------------------------------
+/** Exact summation that picks the algorithm by input size.
+ * <p>
+ * Values go into an {@link IFastAccumulator} buffer until it
+ * holds <code>threshold</code> values; then the buffer is
+ * moved into a {@link ZhuHayesBranch}, which takes everything
+ * after that, until {@link #clear()}.
+ * Bulk inputs that would push the buffer past the threshold
+ * go straight to the vectorized ZhuHayes kernels.
+ * <p>
+ * So short inputs pay neither the cost of touching exponent
+ * bins nor of compacting them, and long inputs run in
+ * constant memory.
+ * <p>
+ * The crossover depends on the machine, the SIMD width, and
+ * the spread of exponents in the data; measure it with
+ * {@link nzqr.jmh.benchmarks.accumulate.Crossover} and pass
+ * it to {@link #make(int)}.
+ * <p>
+ * <em>NOT</em> thread safe!
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class AdaptiveAccumulator
+implements IncrementalPartials<AdaptiveAccumulator>,
+           MergeableAccumulator<AdaptiveAccumulator>,
+           SegmentAccumulator<AdaptiveAccumulator> {
+
+  //--------------------------------------------------------------
+
+  private final int threshold;
+
+  private final IFastAccumulator small;
+
+  /** Allocated on first use, and kept across clears. */
+  private ZhuHayesBranch large;
+
+  /** True when values go to {@link #large}. */
+  private boolean binned;
+
+  //--------------------------------------------------------------
+
+  /** Move the buffered values into the bins. */
+
+  private final ZhuHayesBranch bins () {
+    if (! binned) {
+      if (null == large) { large = ZhuHayesBranch.make(); }
+      small.addTo(large);
+      small.clear();
+      binned = true; }
+    return large; }
+
+  /** Would adding <code>n</code> more values stay under the
+   * threshold?
+   */
+
+  private final boolean fits (final long n) {
+    return (! binned) && ((small.size() + n) < threshold); }
+
+  private final AdaptiveAccumulator check () {
+    if (small.size() >= threshold) { bins(); }
+    return this; }
+
+  //--------------------------------------------------------------
+  // Accumulator interface
+  //--------------------------------------------------------------
+
+  @Override
+  public final boolean isExact () { return true; }
+
+  @Override
+  public final boolean noOverflow () { return false; }
+
+  @Override
+  public final AdaptiveAccumulator clear () {
+    small.clear();
+    if (binned) {
+      large.clear();
+      binned = false; }
+    return this; }
+
+  @Override
+  public final Object value () {
+    return Double.valueOf(doubleValue()); }
+
+  @Override
+  public final double doubleValue () {
+    if (binned) { return large.doubleValue(); }
+    return small.doubleValue(); }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final AdaptiveAccumulator add (final double z) {
+    if (binned) { large.add(z); return this; }
+    small.add(z);
+    return check(); }
+
+  @Override
+  public final AdaptiveAccumulator add2 (final double z) {
+    if (binned) { large.add2(z); return this; }
+    small.add2(z);
+    return check(); }
+
+  @Override
+  public final AdaptiveAccumulator addProduct (final double z0,
+                                               final double z1) {
+    if (binned) { large.addProduct(z0,z1); return this; }
+    small.addProduct(z0,z1);
+    return check(); }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final AdaptiveAccumulator addAll (final double[] z) {
+    return addAll(z,0,z.length); }
+
+  @Override
+  public final AdaptiveAccumulator addAll (final double[] z,
+                                           final int start,
+                                           final int end) {
+    if (fits(end-start)) { small.addAll(z,start,end); }
+    else { bins().addAll(z,start,end); }
+    return this; }
+
+  @Override
+  public final AdaptiveAccumulator add2All (final double[] z) {
+    return add2All(z,0,z.length); }
+
+  @Override
+  public final AdaptiveAccumulator add2All (final double[] z,
+                                            final int start,
+                                            final int end) {
+    if (fits(2L*(end-start))) { small.add2All(z,start,end); }
+    else { bins().add2All(z,start,end); }
+    return this; }
+
+  @Override
+  public final AdaptiveAccumulator addProducts (final double[] z0,
+                                                final double[] z1) {
+    assert z0.length == z1.length;
+    return addProducts(z0,z1,0,z0.length); }
+
+  @Override
+  public final AdaptiveAccumulator addProducts (final double[] z0,
+                                                final double[] z1,
+                                                final int start,
+                                                final int end) {
+    if (fits(2L*(end-start))) { small.addProducts(z0,z1,start,end); }
+    else { bins().addProducts(z0,z1,start,end); }
+    return this; }
+
+  //--------------------------------------------------------------
+  // MemorySegment input
+  //--------------------------------------------------------------
+
+  @Override
+  public final AdaptiveAccumulator addAll (final MemorySegment z) {
+    if (fits(z.byteSize()/Double.BYTES)) { small.addAll(z); }
+    else { bins().addAll(z); }
+    return this; }
+
+  @Override
+  public final AdaptiveAccumulator add2All (final MemorySegment z) {
+    if (fits(2L*(z.byteSize()/Double.BYTES))) { small.add2All(z); }
+    else { bins().add2All(z); }
+    return this; }
+
+  @Override
+  public final AdaptiveAccumulator addProducts (final MemorySegment z0,
+                                                final MemorySegment z1) {
+    if (fits(2L*(z0.byteSize()/Double.BYTES))) {
+      small.addProducts(z0,z1); }
+    else { bins().addProducts(z0,z1); }
+    return this; }
+
+  //--------------------------------------------------------------
+  // merging
+  //--------------------------------------------------------------
+
+  @Override
+  public final AdaptiveAccumulator merge (final AdaptiveAccumulator that) {
+    assert this != that;
+    if (that.binned) { bins().merge(that.large); }
+    if (binned) { that.small.addTo(large); return this; }
+    small.merge(that.small);
+    return check(); }
+
+  @Override
+  public final AdaptiveAccumulator empty () { return make(threshold); }
+
+  //--------------------------------------------------------------
+  // construction
+  //--------------------------------------------------------------
+
+  /** Default threshold: a memory cap, not a measured crossover.
+   * Buffers at most 512KB of values, a little more than the
+   * fixed size of the {@link ZhuHayesBranch} bins it moves to.
+   * Pass a {@link nzqr.jmh.benchmarks.accumulate.Crossover}
+   * result to {@link #make(int)} to pick by speed instead.
+   */
+
+  public static final int MAX_BUFFER = 1 << 16;
+
+  private AdaptiveAccumulator (final int threshold) {
+    this.threshold = threshold;
+    small = IFastAccumulator.make();
+    large = null;
+    binned = false; }
+
+  public static final AdaptiveAccumulator make (final int threshold) {
+    if (0 >= threshold) {
+      throw new IllegalArgumentException(
+        "threshold " + threshold + " <= 0"); }
+    return new AdaptiveAccumulator(threshold); }
+
+  public static final AdaptiveAccumulator make () {
+    return make(MAX_BUFFER); }
+
+  /** <code>mode</code> is the threshold, as a decimal integer.
+   */
+
+  public static final AdaptiveAccumulator make (final String mode) {
+    return make(Integer.parseInt(mode)); }
+
+  //--------------------------------------------------------------
+} // end of class
+//----------------------------------------------------------------
@@ -2,17 +2,26 @@ package nzqr.jmh.accumulators;
 
 import java.math.BigDecimal;
 
-import nzqr.java.accumulators.Accumulator;
-
 /** Naive sum of <code>double</code> values with BigDecimal
  * accumulator (for testing).
+ * <p>
+ * By default, the sum is kept in a {@link BinaryFixedPoint},
+ * one mutable limb array wide enough for any double or double
+ * product, so each add is an in-place shift and add;
+ * it is converted to <code>BigDecimal</code> only in
+ * {@link #value()}.
+ * {@link #make(String)} with <code>"naive"</code> adds a new
+ * <code>BigDecimal</code> for every value, for comparison.
  *
  * @author palisades dot lakes at gmail dot com
- * @version 2019-04-21
+ * @version 2026-10-16
  */
 public final class BigDecimalAccumulator
 
-implements Accumulator<BigDecimalAccumulator> {
+implements SegmentAccumulator<BigDecimalAccumulator> {
+
+  /** <code>null</code> in naive mode. */
+  private final BinaryFixedPoint _limbs;
 
   private BigDecimal _sum;
 
@@ -28,19 +37,24 @@ implements Accumulator<BigDecimalAccumulator> {
 
   @Override
   public final BigDecimalAccumulator clear () {
+    if (null != _limbs) { _limbs.clear(); }
     _sum = BigDecimal.ZERO;
     return this; }
 
   @Override
-  public final Object value () { return _sum; }
+  public final Object value () {
+    if (null != _limbs) { return _limbs.bigDecimalValue(); }
+    return _sum; }
 
   @Override
   public final double doubleValue () {
+    if (null != _limbs) { return _limbs.doubleValue(); }
     return _sum.doubleValue(); }
 
   @Override
   public final BigDecimalAccumulator add (final double z) {
     assert Double.isFinite(z);
+    if (null != _limbs) { _limbs.add(z); return this; }
     _sum = _sum.add(new BigDecimal(z));
     return this; }
 
@@ -53,6 +67,7 @@ implements Accumulator<BigDecimalAccumulator> {
   @Override
   public final BigDecimalAccumulator add2 (final double z) {
     assert Double.isFinite(z);
+    if (null != _limbs) { _limbs.addProduct(z,z); return this; }
     final BigDecimal bd = new BigDecimal(z);
     _sum = _sum.add(bd.multiply(bd));
     return this; }
@@ -62,6 +77,7 @@ implements Accumulator<BigDecimalAccumulator> {
                                                  final double z1) {
     assert Double.isFinite(z0);
     assert Double.isFinite(z1);
+    if (null != _limbs) { _limbs.addProduct(z0,z1); return this; }
     _sum = _sum.add(
       new BigDecimal(z0)
       .multiply(
@@ -80,10 +96,23 @@ implements Accumulator<BigDecimalAccumulator> {
   // construction
   //--------------------------------------------------------------
 
-  private BigDecimalAccumulator () { super(); clear(); }
+  private BigDecimalAccumulator (final BinaryFixedPoint limbs) {
+    super();
+    _limbs = limbs;
+    clear(); }
 
   public static final BigDecimalAccumulator make () {
-    return new BigDecimalAccumulator(); }
+    return new BigDecimalAccumulator(BinaryFixedPoint.make()); }
+
+  /** <code>mode</code> is <code>"limbs"</code>, same as
+   * {@link #make()}, or <code>"naive"</code>.
+   */
+
+  public static final BigDecimalAccumulator make (final String mode) {
+    return switch (mode) {
+      case "limbs" -> make();
+      case "naive" -> new BigDecimalAccumulator(null);
+      default -> throw new IllegalArgumentException(mode); }; }
 
   //--------------------------------------------------------------
 }
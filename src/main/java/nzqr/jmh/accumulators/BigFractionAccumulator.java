@@ -2,8 +2,6 @@ package nzqr.jmh.accumulators;
 
 import org.apache.commons.math3.fraction.BigFraction;
 
-import nzqr.java.accumulators.Accumulator;
-
 /** Naive sum of <code>double</code> values with BigFraction
  * accumulator (for testing).
  *
@@ -12,7 +10,7 @@ import nzqr.java.accumulators.Accumulator;
  */
 public final class BigFractionAccumulator
 
-implements Accumulator<BigFractionAccumulator> {
+implements SegmentAccumulator<BigFractionAccumulator> {
 
   private BigFraction _sum;
 
@@ -0,0 +1,243 @@
+package nzqr.jmh.accumulators;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+//----------------------------------------------------------------
+/** Exact sum of doubles, and of exact products of doubles,
+ * as one mutable binary fixed point number.
+ * <p>
+ * The sum is
+ * <code>sum(limbs[i] * 2<sup>32*i + MIN_EXPONENT</sup>)</code>.
+ * <code>MIN_EXPONENT</code> is the least significant bit of the
+ * product of two subnormals, and the limbs reach past the most
+ * significant bit of the product of two
+ * <code>MAX_VALUE</code>s, so every input lands, unrounded,
+ * in 2 to 5 limbs.
+ * <p>
+ * Limbs hold 32 bit digits in signed <code>long</code>s,
+ * so an add just adds or subtracts each digit in place,
+ * without propagating carries;
+ * carries are propagated every <code>2<sup>30</sup></code> adds,
+ * and before reading the sum.
+ * After {@link #normalize()}, every limb but the last is in
+ * <code>[0,2<sup>32</sup>)</code>, and the last carries the sign.
+ * <p>
+ * <em>NOT</em> thread safe!
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-16
+ */
+
+final class BinaryFixedPoint {
+
+  //--------------------------------------------------------------
+
+  private static final int SIGNIFICAND_BITS = Double.PRECISION - 1;
+
+  private static final long SIGNIFICAND_MASK =
+    (1L << SIGNIFICAND_BITS) - 1L;
+
+  /** Exponent of the least significant bit of the subnormals.
+   */
+  private static final int MIN_DOUBLE_EXPONENT =
+    Double.MIN_EXPONENT - SIGNIFICAND_BITS;
+
+  /** Exponent of the least significant bit of limb 0. */
+  static final int MIN_EXPONENT = 2 * MIN_DOUBLE_EXPONENT;
+
+  private static final int DIGIT_BITS = 32;
+
+  private static final long DIGIT_MASK = 0xFFFFFFFFL;
+
+  /** Products are less than
+   * <code>2<sup>2*(MAX_EXPONENT+1)</sup></code>;
+   * one extra limb for the carries, and one for the sign.
+   */
+  static final int NLIMBS =
+    2 + ((2 * (Double.MAX_EXPONENT + 1) - MIN_EXPONENT
+      + DIGIT_BITS - 1) / DIGIT_BITS);
+
+  /** Each add changes a limb by less than
+   * <code>2<sup>32</sup></code>, so this many adds can't
+   * overflow a normalized limb.
+   */
+  private static final int MAX_PENDING = 1 << 30;
+
+  //--------------------------------------------------------------
+
+  private final long[] limbs = new long[NLIMBS];
+
+  /** Adds since the last {@link #normalize()}. */
+  private int pending = 0;
+
+  //--------------------------------------------------------------
+
+  private static final long significand (final long bits) {
+    final int be = (int) ((bits >>> SIGNIFICAND_BITS) & 0x7FFL);
+    final long s = bits & SIGNIFICAND_MASK;
+    return (0 == be) ? s : (s | (1L << SIGNIFICAND_BITS)); }
+
+  private static final int exponent (final long bits) {
+    final int be = (int) ((bits >>> SIGNIFICAND_BITS) & 0x7FFL);
+    return (0 == be)
+      ? MIN_DOUBLE_EXPONENT
+      : (be + MIN_DOUBLE_EXPONENT - 1); }
+
+  //--------------------------------------------------------------
+  /** Propagate carries. */
+
+  final BinaryFixedPoint normalize () {
+    long carry = 0L;
+    for (int i=0;i<NLIMBS-1;i++) {
+      final long x = limbs[i] + carry;
+      limbs[i] = x & DIGIT_MASK;
+      carry = x >> DIGIT_BITS; }
+    limbs[NLIMBS-1] += carry;
+    pending = 0;
+    return this; }
+
+  private final void count () {
+    if (MAX_PENDING <= ++pending) { normalize(); } }
+
+  final BinaryFixedPoint clear () {
+    Arrays.fill(limbs,0L);
+    pending = 0;
+    return this; }
+
+  //--------------------------------------------------------------
+  /** Add, or subtract if <code>negative</code>,
+   * <code>(hi*2<sup>64</sup> + lo) * 2<sup>e</sup></code>,
+   * where <code>hi</code> and <code>lo</code> are unsigned,
+   * and <code>hi</code> has at most 42 bits.
+   */
+
+  private final void add (final boolean negative,
+                          final long hi,
+                          final long lo,
+                          final int e) {
+    final int offset = e - MIN_EXPONENT;
+    final int sh = offset % DIGIT_BITS;
+    int i = offset / DIGIT_BITS;
+    // shift the 106 bit magnitude up by sh < 32,
+    // into 3 longs: w0 and w1 full, w2 the top bits
+    final long w0 = lo << sh;
+    final long w1 =
+      (0 == sh) ? hi : ((hi << sh) | (lo >>> (64 - sh)));
+    final long w2 = (0 == sh) ? 0L : (hi >>> (64 - sh));
+    if (negative) {
+      limbs[i++] -= w0 & DIGIT_MASK;
+      limbs[i++] -= w0 >>> DIGIT_BITS;
+      limbs[i++] -= w1 & DIGIT_MASK;
+      limbs[i++] -= w1 >>> DIGIT_BITS;
+      limbs[i] -= w2; }
+    else {
+      limbs[i++] += w0 & DIGIT_MASK;
+      limbs[i++] += w0 >>> DIGIT_BITS;
+      limbs[i++] += w1 & DIGIT_MASK;
+      limbs[i++] += w1 >>> DIGIT_BITS;
+      limbs[i] += w2; }
+    count(); }
+
+  final BinaryFixedPoint add (final double z) {
+    assert Double.isFinite(z);
+    final long bits = Double.doubleToRawLongBits(z);
+    final long s = significand(bits);
+    if (0L == s) { return this; }
+    final int offset = exponent(bits) - MIN_EXPONENT;
+    final int sh = offset % DIGIT_BITS;
+    int i = offset / DIGIT_BITS;
+    // 53 bit significand shifted up by sh < 32 fits in 85 bits
+    final long w0 = s << sh;
+    final long w1 = (0 == sh) ? 0L : (s >>> (64 - sh));
+    if (0L > bits) {
+      limbs[i++] -= w0 & DIGIT_MASK;
+      limbs[i++] -= w0 >>> DIGIT_BITS;
+      limbs[i] -= w1; }
+    else {
+      limbs[i++] += w0 & DIGIT_MASK;
+      limbs[i++] += w0 >>> DIGIT_BITS;
+      limbs[i] += w1; }
+    count();
+    return this; }
+
+  final BinaryFixedPoint addProduct (final double z0,
+                                     final double z1) {
+    assert Double.isFinite(z0);
+    assert Double.isFinite(z1);
+    final long bits0 = Double.doubleToRawLongBits(z0);
+    final long bits1 = Double.doubleToRawLongBits(z1);
+    final long s0 = significand(bits0);
+    final long s1 = significand(bits1);
+    if ((0L == s0) || (0L == s1)) { return this; }
+    // exact 106 bit product of 53 bit significands
+    add(
+      0L > (bits0 ^ bits1),
+      Math.multiplyHigh(s0,s1),
+      s0 * s1,
+      exponent(bits0) + exponent(bits1));
+    return this; }
+
+  //--------------------------------------------------------------
+  /** Two's complement integer <code>m</code>,
+   * with the sum <code>m * 2<sup>MIN_EXPONENT</sup></code>.
+   */
+
+  final BigInteger unscaled () {
+    normalize();
+    final byte[] b = new byte[Long.BYTES + (NLIMBS-1)*Integer.BYTES];
+    long top = limbs[NLIMBS-1];
+    for (int j=Long.BYTES-1;j>=0;j--) {
+      b[j] = (byte) top; top >>= 8; }
+    int k = b.length;
+    for (int i=0;i<NLIMBS-1;i++) {
+      long x = limbs[i];
+      for (int j=0;j<Integer.BYTES;j++) {
+        b[--k] = (byte) x; x >>>= 8; } }
+    return new BigInteger(b); }
+
+  final BigDecimal bigDecimalValue () {
+    final BigInteger m = unscaled();
+    if (0 == m.signum()) { return BigDecimal.ZERO; }
+    final int t = m.getLowestSetBit();
+    final BigInteger n = m.shiftRight(t);
+    final int e = MIN_EXPONENT + t;
+    if (0 <= e) { return new BigDecimal(n.shiftLeft(e)); }
+    // n/2^-e == n*5^-e / 10^-e
+    return new BigDecimal(n.multiply(BigInteger.valueOf(5).pow(-e)),-e); }
+
+  /** Round half even. */
+
+  final double doubleValue () {
+    final BigInteger m = unscaled();
+    final int sign = m.signum();
+    if (0 == sign) { return 0.0; }
+    final BigInteger a = m.abs();
+    final int t = a.getLowestSetBit();
+    final int bl = a.bitLength();
+    // exponent of the unit in the last place of the result;
+    // MIN_EXPONENT < MIN_DOUBLE_EXPONENT, so always rounds
+    final int q =
+      Math.max(bl + MIN_EXPONENT - Double.PRECISION,
+        MIN_DOUBLE_EXPONENT);
+    final int sh = q - MIN_EXPONENT;
+    long r = a.shiftRight(sh).longValue();
+    if (a.testBit(sh-1) && ((t < sh-1) || (0L != (r & 1L)))) {
+      r++; }
+    // r <= 2^53, so exact; scalb overflows to infinity if needed
+    final double d = Math.scalb((double) r,q);
+    return (0 > sign) ? -d : d; }
+
+  //--------------------------------------------------------------
+  // construction
+  //--------------------------------------------------------------
+
+  private BinaryFixedPoint () { }
+
+  static final BinaryFixedPoint make () {
+    return new BinaryFixedPoint(); }
+
+  //--------------------------------------------------------------
+} // end of class
+//----------------------------------------------------------------
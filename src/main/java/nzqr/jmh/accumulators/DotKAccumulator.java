@@ -0,0 +1,262 @@
+package nzqr.jmh.accumulators;
+
+//----------------------------------------------------------------
+/** K-fold compensated summation and dot products, after
+ * Ogita, Rump and Oishi's SumK and DotK, in one pass.
+ * <p>
+ * Keeps <code>K</code> levels. Each value goes into level 0
+ * with an error free <code>twoSum</code>; the rounding error of
+ * level <code>j</code> goes into level <code>j+1</code> the
+ * same way, and the last level is a plain sum.
+ * Products are split with an fma based <code>twoProduct</code>:
+ * the rounded product goes into level 0, and its error into
+ * level 1.
+ * <p>
+ * The errors reach each level in the same order as in
+ * SumK's <code>K-1</code> passes of VecSum, so, as there,
+ * the result is about as accurate as if computed in
+ * <code>K</code>-fold working precision, and then rounded,
+ * while the condition number is less than about
+ * <code>2<sup>53(K-1)</sup></code>.
+ * <code>K=1</code> is naive summation, <code>K=2</code> is
+ * Neumaier/Dot2.
+ * <p>
+ * Mutable! Not thread safe!
+ *
+ * @see <a
+ *      href="https://doi.org/10.1137/030601818">
+ *      Ogita, Rump, and Oishi, "Accurate Sum and Dot Product",
+ *      SIAM J. Sci. Comput. 26(6), 2005</a>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-16
+ */
+
+public final class DotKAccumulator
+
+implements SegmentAccumulator<DotKAccumulator> {
+
+  /** Default number of levels. */
+  public static final int DEFAULT_K = 3;
+
+  private final int k;
+
+  // s[0] is the leading sum, s[k-1] the plain sum of the
+  // last errors
+  private final double[] s;
+
+  // scratch for doubleValue
+  private final double[] t;
+
+  //--------------------------------------------------------------
+  // cascade
+  //--------------------------------------------------------------
+
+  /** Add <code>z</code> at <code>level</code>, pushing the
+   * rounding errors down.
+   */
+
+  private final void cascade (final int level,
+                              final double z) {
+    double x = z;
+    final int last = k - 1;
+    for (int j=level;j<last;j++) {
+      final double sj = s[j];
+      final double t = sj + x;
+      final double xx = t - sj;
+      x = (sj - (t - xx)) + (x - xx);
+      s[j] = t; }
+    s[last] += x; }
+
+  private final void cascadeProduct (final double z0,
+                                     final double z1) {
+    final double p = z0*z1;
+    final double e = Math.fma(z0,z1,-p);
+    if (1 == k) { s[0] += p + e; }
+    else { cascade(0,p); cascade(1,e); } }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final boolean isExact () { return false; }
+
+  @Override
+  public final boolean noOverflow () { return false; }
+
+  @Override
+  public final Object value () {
+    return Double.valueOf(doubleValue()); }
+
+  /** SumK of the levels themselves: the levels may cancel, so
+   * just adding them would throw away the extra precision.
+   * <code>K-1</code> passes of VecSum, smallest level first,
+   * then add the errors to the last sum.
+   */
+
+  @Override
+  public final double doubleValue () {
+    for (int j=0;j<k;j++) { t[j] = s[k-1-j]; }
+    for (int pass=1;pass<k;pass++) {
+      for (int j=1;j<k;j++) {
+        final double a = t[j];
+        final double b = t[j-1];
+        final double ab = a + b;
+        final double bb = ab - a;
+        t[j-1] = (a - (ab - bb)) + (b - bb);
+        t[j] = ab; } }
+    double r = 0.0;
+    for (int j=0;j<k-1;j++) { r += t[j]; }
+    return r + t[k-1]; }
+
+  @Override
+  public final DotKAccumulator clear () {
+    for (int j=0;j<k;j++) { s[j] = 0.0; }
+    return this; }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final DotKAccumulator add (final double z) {
+    assert Double.isFinite(z);
+    cascade(0,z);
+    return this; }
+
+  @Override
+  public final DotKAccumulator add2 (final double z) {
+    assert Double.isFinite(z);
+    cascadeProduct(z,z);
+    return this; }
+
+  @Override
+  public final DotKAccumulator addProduct (final double z0,
+                                           final double z1) {
+    assert Double.isFinite(z0);
+    assert Double.isFinite(z1);
+    cascadeProduct(z0,z1);
+    return this; }
+
+  //--------------------------------------------------------------
+  // bulk operations, levels in locals for K=2 and K=3
+  //--------------------------------------------------------------
+
+  @Override
+  public final DotKAccumulator addAll (final double[] z) {
+    if (2 == k) { return addAll2(z); }
+    if (3 == k) { return addAll3(z); }
+    for (final double zi : z) {
+      assert Double.isFinite(zi);
+      cascade(0,zi); }
+    return this; }
+
+  private final DotKAccumulator addAll2 (final double[] z) {
+    double s0 = s[0], s1 = s[1];
+    for (final double zi : z) {
+      assert Double.isFinite(zi);
+      final double t0 = s0 + zi;
+      final double zz0 = t0 - s0;
+      s1 += (s0 - (t0 - zz0)) + (zi - zz0);
+      s0 = t0; }
+    s[0] = s0; s[1] = s1;
+    return this; }
+
+  private final DotKAccumulator addAll3 (final double[] z) {
+    double s0 = s[0], s1 = s[1], s2 = s[2];
+    for (final double zi : z) {
+      assert Double.isFinite(zi);
+      final double t0 = s0 + zi;
+      final double zz0 = t0 - s0;
+      final double e0 = (s0 - (t0 - zz0)) + (zi - zz0);
+      s0 = t0;
+      final double t1 = s1 + e0;
+      final double zz1 = t1 - s1;
+      s2 += (s1 - (t1 - zz1)) + (e0 - zz1);
+      s1 = t1; }
+    s[0] = s0; s[1] = s1; s[2] = s2;
+    return this; }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final DotKAccumulator add2All (final double[] z) {
+    return addProducts(z,z); }
+
+  @Override
+  public final DotKAccumulator addProducts (final double[] z0,
+                                            final double[] z1) {
+    final int n = z0.length;
+    assert n == z1.length;
+    if (2 == k) { return addProducts2(z0,z1); }
+    if (3 == k) { return addProducts3(z0,z1); }
+    for (int i=0;i<n;i++) {
+      assert Double.isFinite(z0[i]);
+      assert Double.isFinite(z1[i]);
+      cascadeProduct(z0[i],z1[i]); }
+    return this; }
+
+  private final DotKAccumulator addProducts2 (final double[] z0,
+                                              final double[] z1) {
+    final int n = z0.length;
+    double s0 = s[0], s1 = s[1];
+    for (int i=0;i<n;i++) {
+      assert Double.isFinite(z0[i]);
+      assert Double.isFinite(z1[i]);
+      final double p = z0[i]*z1[i];
+      final double e = Math.fma(z0[i],z1[i],-p);
+      final double t0 = s0 + p;
+      final double pp0 = t0 - s0;
+      s1 += (s0 - (t0 - pp0)) + (p - pp0);
+      s1 += e;
+      s0 = t0; }
+    s[0] = s0; s[1] = s1;
+    return this; }
+
+  private final DotKAccumulator addProducts3 (final double[] z0,
+                                              final double[] z1) {
+    final int n = z0.length;
+    double s0 = s[0], s1 = s[1], s2 = s[2];
+    for (int i=0;i<n;i++) {
+      assert Double.isFinite(z0[i]);
+      assert Double.isFinite(z1[i]);
+      final double p = z0[i]*z1[i];
+      final double e = Math.fma(z0[i],z1[i],-p);
+      final double t0 = s0 + p;
+      final double pp0 = t0 - s0;
+      final double e0 = (s0 - (t0 - pp0)) + (p - pp0);
+      s0 = t0;
+      final double t1 = s1 + e0;
+      final double ee1 = t1 - s1;
+      s2 += (s1 - (t1 - ee1)) + (e0 - ee1);
+      final double t2 = t1 + e;
+      final double ee2 = t2 - t1;
+      s2 += (t1 - (t2 - ee2)) + (e - ee2);
+      s1 = t2; }
+    s[0] = s0; s[1] = s1; s[2] = s2;
+    return this; }
+
+  //--------------------------------------------------------------
+  // construction
+  //--------------------------------------------------------------
+
+  private DotKAccumulator (final int k) {
+    super();
+    assert 0 < k;
+    this.k = k;
+    s = new double[k];
+    t = new double[k]; }
+
+  public static final DotKAccumulator make (final int k) {
+    if (1 > k) { throw new IllegalArgumentException("k=" + k); }
+    return new DotKAccumulator(k); }
+
+  /** <code>mode</code> is <code>K</code>, eg <code>"2"</code>.
+   */
+
+  public static final DotKAccumulator make (final String mode) {
+    return make(Integer.parseInt(mode)); }
+
+  public static final DotKAccumulator make () {
+    return make(DEFAULT_K); }
+
+  //--------------------------------------------------------------
+} // end of class
+//--------------------------------------------------------------
@@ -1,7 +1,5 @@
 package nzqr.jmh.accumulators;
 
-import nzqr.java.accumulators.Accumulator;
-
 /** Naive sum of <code>double</code> values.
  *
  * @author palisades dot lakes at gmail dot com
@@ -9,7 +7,7 @@ import nzqr.java.accumulators.Accumulator;
  */
 
 public final class DoubleAccumulator
-implements Accumulator<DoubleAccumulator> {
+implements SegmentAccumulator<DoubleAccumulator> {
 
   private double _sum;
 
@@ -1,7 +1,5 @@
 package nzqr.jmh.accumulators;
 
-import nzqr.java.accumulators.Accumulator;
-
 /** Naive sum of <code>double</code> values, using fma.
  *
  * @author palisades dot lakes at gmail dot com
@@ -9,7 +7,7 @@ import nzqr.java.accumulators.Accumulator;
  */
 
 public final class DoubleFmaAccumulator
-implements Accumulator<DoubleFmaAccumulator> {
+implements SegmentAccumulator<DoubleFmaAccumulator> {
 
   private double _sum;
 
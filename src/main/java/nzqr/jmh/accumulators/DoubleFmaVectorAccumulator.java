@@ -0,0 +1,251 @@
+package nzqr.jmh.accumulators;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteOrder;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+//----------------------------------------------------------------
+/** Naive sum of <code>double</code> values, using fma,
+ * like {@link DoubleFmaAccumulator}, but with the bulk
+ * operations explicitly vectorized:
+ * 4 independent vector accumulators, so the loops are bound by
+ * load bandwidth, not add or fma latency, and a horizontal
+ * reduction at the end of each call.
+ * <p>
+ * Adds happen in a different order than in
+ * {@link DoubleFmaAccumulator}, so results are not bit for bit
+ * the same.
+ * <p>
+ * Requires <code>--add-modules jdk.incubator.vector</code>.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-16
+ */
+
+public final class DoubleFmaVectorAccumulator
+
+implements SegmentAccumulator<DoubleFmaVectorAccumulator> {
+
+  private static final VectorSpecies<Double> SPECIES =
+    DoubleVector.SPECIES_PREFERRED;
+
+  private static final int LANES = SPECIES.length();
+
+  /** Elements per iteration of the unrolled loops. */
+  private static final int STRIDE = 4 * LANES;
+
+  private static final ByteOrder ORDER = ByteOrder.nativeOrder();
+
+  private double _sum;
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final boolean isExact () { return false; }
+
+  @Override
+  public final boolean noOverflow () { return false; }
+
+  @Override
+  public final Object value () {
+    return Double.valueOf(doubleValue()); }
+
+  @Override
+  public final double doubleValue () { return _sum; }
+
+  @Override
+  public final DoubleFmaVectorAccumulator clear () {
+    _sum = 0.0;
+    return this; }
+
+  @Override
+  public final DoubleFmaVectorAccumulator add (final double z) {
+    assert Double.isFinite(z);
+    _sum += z;
+    return this; }
+
+  @Override
+  public final DoubleFmaVectorAccumulator add2 (final double z) {
+    assert Double.isFinite(z);
+    _sum = Math.fma(z,z,_sum);
+    return this; }
+
+  @Override
+  public final DoubleFmaVectorAccumulator addProduct (final double z0,
+                                                      final double z1) {
+    assert Double.isFinite(z0);
+    assert Double.isFinite(z1);
+    _sum = Math.fma(z0,z1,_sum);
+    return this; }
+
+  //--------------------------------------------------------------
+  // vectorized bulk operations
+  //--------------------------------------------------------------
+
+  @Override
+  public final DoubleFmaVectorAccumulator addAll (final double[] z) {
+    final int n = z.length;
+    final int m = n - (n % STRIDE);
+    DoubleVector a0 = DoubleVector.zero(SPECIES);
+    DoubleVector a1 = DoubleVector.zero(SPECIES);
+    DoubleVector a2 = DoubleVector.zero(SPECIES);
+    DoubleVector a3 = DoubleVector.zero(SPECIES);
+    for (int i=0;i<m;i+=STRIDE) {
+      a0 = a0.add(DoubleVector.fromArray(SPECIES,z,i));
+      a1 = a1.add(DoubleVector.fromArray(SPECIES,z,i+LANES));
+      a2 = a2.add(DoubleVector.fromArray(SPECIES,z,i+2*LANES));
+      a3 = a3.add(DoubleVector.fromArray(SPECIES,z,i+3*LANES)); }
+    double s =
+      a0.add(a1).add(a2.add(a3)).reduceLanes(VectorOperators.ADD);
+    for (int i=m;i<n;i++) { s += z[i]; }
+    _sum += s;
+    return this; }
+
+  @Override
+  public final DoubleFmaVectorAccumulator add2All (final double[] z) {
+    final int n = z.length;
+    final int m = n - (n % STRIDE);
+    DoubleVector a0 = DoubleVector.zero(SPECIES);
+    DoubleVector a1 = DoubleVector.zero(SPECIES);
+    DoubleVector a2 = DoubleVector.zero(SPECIES);
+    DoubleVector a3 = DoubleVector.zero(SPECIES);
+    for (int i=0;i<m;i+=STRIDE) {
+      final DoubleVector x0 = DoubleVector.fromArray(SPECIES,z,i);
+      final DoubleVector x1 = DoubleVector.fromArray(SPECIES,z,i+LANES);
+      final DoubleVector x2 = DoubleVector.fromArray(SPECIES,z,i+2*LANES);
+      final DoubleVector x3 = DoubleVector.fromArray(SPECIES,z,i+3*LANES);
+      a0 = x0.fma(x0,a0);
+      a1 = x1.fma(x1,a1);
+      a2 = x2.fma(x2,a2);
+      a3 = x3.fma(x3,a3); }
+    double s =
+      a0.add(a1).add(a2.add(a3)).reduceLanes(VectorOperators.ADD);
+    for (int i=m;i<n;i++) { s = Math.fma(z[i],z[i],s); }
+    _sum += s;
+    return this; }
+
+  @Override
+  public final DoubleFmaVectorAccumulator addProducts (final double[] z0,
+                                                       final double[] z1) {
+    final int n = z0.length;
+    assert n == z1.length;
+    final int m = n - (n % STRIDE);
+    DoubleVector a0 = DoubleVector.zero(SPECIES);
+    DoubleVector a1 = DoubleVector.zero(SPECIES);
+    DoubleVector a2 = DoubleVector.zero(SPECIES);
+    DoubleVector a3 = DoubleVector.zero(SPECIES);
+    for (int i=0;i<m;i+=STRIDE) {
+      a0 = DoubleVector.fromArray(SPECIES,z0,i)
+        .fma(DoubleVector.fromArray(SPECIES,z1,i),a0);
+      a1 = DoubleVector.fromArray(SPECIES,z0,i+LANES)
+        .fma(DoubleVector.fromArray(SPECIES,z1,i+LANES),a1);
+      a2 = DoubleVector.fromArray(SPECIES,z0,i+2*LANES)
+        .fma(DoubleVector.fromArray(SPECIES,z1,i+2*LANES),a2);
+      a3 = DoubleVector.fromArray(SPECIES,z0,i+3*LANES)
+        .fma(DoubleVector.fromArray(SPECIES,z1,i+3*LANES),a3); }
+    double s =
+      a0.add(a1).add(a2.add(a3)).reduceLanes(VectorOperators.ADD);
+    for (int i=m;i<n;i++) { s = Math.fma(z0[i],z1[i],s); }
+    _sum += s;
+    return this; }
+
+  //--------------------------------------------------------------
+  // MemorySegment input
+  //--------------------------------------------------------------
+
+  @Override
+  public final DoubleFmaVectorAccumulator addAll (final MemorySegment z) {
+    final long n = z.byteSize() / Double.BYTES;
+    final long m = n - (n % STRIDE);
+    final long b = Double.BYTES;
+    DoubleVector a0 = DoubleVector.zero(SPECIES);
+    DoubleVector a1 = DoubleVector.zero(SPECIES);
+    DoubleVector a2 = DoubleVector.zero(SPECIES);
+    DoubleVector a3 = DoubleVector.zero(SPECIES);
+    for (long i=0;i<m;i+=STRIDE) {
+      a0 = a0.add(DoubleVector.fromMemorySegment(SPECIES,z,b*i,ORDER));
+      a1 = a1.add(DoubleVector.fromMemorySegment(SPECIES,z,b*(i+LANES),ORDER));
+      a2 = a2.add(DoubleVector.fromMemorySegment(SPECIES,z,b*(i+2*LANES),ORDER));
+      a3 = a3.add(DoubleVector.fromMemorySegment(SPECIES,z,b*(i+3*LANES),ORDER)); }
+    double s =
+      a0.add(a1).add(a2.add(a3)).reduceLanes(VectorOperators.ADD);
+    for (long i=m;i<n;i++) { s += z.getAtIndex(ELEMENT,i); }
+    _sum += s;
+    return this; }
+
+  @Override
+  public final DoubleFmaVectorAccumulator add2All (final MemorySegment z) {
+    final long n = z.byteSize() / Double.BYTES;
+    final long m = n - (n % STRIDE);
+    final long b = Double.BYTES;
+    DoubleVector a0 = DoubleVector.zero(SPECIES);
+    DoubleVector a1 = DoubleVector.zero(SPECIES);
+    DoubleVector a2 = DoubleVector.zero(SPECIES);
+    DoubleVector a3 = DoubleVector.zero(SPECIES);
+    for (long i=0;i<m;i+=STRIDE) {
+      final DoubleVector x0 =
+        DoubleVector.fromMemorySegment(SPECIES,z,b*i,ORDER);
+      final DoubleVector x1 =
+        DoubleVector.fromMemorySegment(SPECIES,z,b*(i+LANES),ORDER);
+      final DoubleVector x2 =
+        DoubleVector.fromMemorySegment(SPECIES,z,b*(i+2*LANES),ORDER);
+      final DoubleVector x3 =
+        DoubleVector.fromMemorySegment(SPECIES,z,b*(i+3*LANES),ORDER);
+      a0 = x0.fma(x0,a0);
+      a1 = x1.fma(x1,a1);
+      a2 = x2.fma(x2,a2);
+      a3 = x3.fma(x3,a3); }
+    double s =
+      a0.add(a1).add(a2.add(a3)).reduceLanes(VectorOperators.ADD);
+    for (long i=m;i<n;i++) {
+      final double zi = z.getAtIndex(ELEMENT,i);
+      s = Math.fma(zi,zi,s); }
+    _sum += s;
+    return this; }
+
+  @Override
+  public final DoubleFmaVectorAccumulator addProducts (final MemorySegment z0,
+                                                       final MemorySegment z1) {
+    assert z0.byteSize() == z1.byteSize();
+    final long n = z0.byteSize() / Double.BYTES;
+    final long m = n - (n % STRIDE);
+    final long b = Double.BYTES;
+    DoubleVector a0 = DoubleVector.zero(SPECIES);
+    DoubleVector a1 = DoubleVector.zero(SPECIES);
+    DoubleVector a2 = DoubleVector.zero(SPECIES);
+    DoubleVector a3 = DoubleVector.zero(SPECIES);
+    for (long i=0;i<m;i+=STRIDE) {
+      final long k0 = b*i;
+      final long k1 = b*(i+LANES);
+      final long k2 = b*(i+2*LANES);
+      final long k3 = b*(i+3*LANES);
+      a0 = DoubleVector.fromMemorySegment(SPECIES,z0,k0,ORDER)
+        .fma(DoubleVector.fromMemorySegment(SPECIES,z1,k0,ORDER),a0);
+      a1 = DoubleVector.fromMemorySegment(SPECIES,z0,k1,ORDER)
+        .fma(DoubleVector.fromMemorySegment(SPECIES,z1,k1,ORDER),a1);
+      a2 = DoubleVector.fromMemorySegment(SPECIES,z0,k2,ORDER)
+        .fma(DoubleVector.fromMemorySegment(SPECIES,z1,k2,ORDER),a2);
+      a3 = DoubleVector.fromMemorySegment(SPECIES,z0,k3,ORDER)
+        .fma(DoubleVector.fromMemorySegment(SPECIES,z1,k3,ORDER),a3); }
+    double s =
+      a0.add(a1).add(a2.add(a3)).reduceLanes(VectorOperators.ADD);
+    for (long i=m;i<n;i++) {
+      s = Math.fma(z0.getAtIndex(ELEMENT,i),z1.getAtIndex(ELEMENT,i),s); }
+    _sum += s;
+    return this; }
+
+  //--------------------------------------------------------------
+  // construction
+  //--------------------------------------------------------------
+
+  private DoubleFmaVectorAccumulator () { super(); _sum = 0.0; }
+
+  public static final DoubleFmaVectorAccumulator make () {
+    return new DoubleFmaVectorAccumulator(); }
+
+  //--------------------------------------------------------------
+} // end of class
+//--------------------------------------------------------------
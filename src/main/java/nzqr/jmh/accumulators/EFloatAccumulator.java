@@ -12,7 +12,8 @@ import nzqr.java.accumulators.ExactAccumulator;
  * @version 2019-07-29
  */
 public final class EFloatAccumulator
-extends ExactAccumulator<EFloatAccumulator> {
+extends ExactAccumulator<EFloatAccumulator>
+implements SegmentAccumulator<EFloatAccumulator> {
 
   private EFloat _sum;
 
@@ -7,16 +7,33 @@ import nzqr.java.accumulators.ExactAccumulator;
 
 /** Naive sum of <code>double</code> values with ERational
  * accumulator (for testing).
+ * <p>
+ * {@link #make(String)} with <code>"dyadic"</code> uses the fact
+ * that every double, and every exact product of doubles, is a
+ * dyadic rational <code>n * 2<sup>e</sup></code>:
+ * it keeps an <code>EInteger</code> numerator over a running
+ * binary exponent, so each add is a shift and an integer add,
+ * with no gcd. The sum is reduced and converted to
+ * <code>ERational</code> only in {@link #value()} and
+ * {@link #doubleValue()}.
  *
  * @author palisades dot lakes at gmail dot com
- * @version 2019-10-15
+ * @version 2026-10-16
  */
 public final class ERationalAccumulator
 
-extends ExactAccumulator<ERationalAccumulator> {
+extends ExactAccumulator<ERationalAccumulator>
+implements SegmentAccumulator<ERationalAccumulator> {
 
   private ERational _sum;
 
+  /** Sum is <code>_num * 2<sup>_exp</sup></code>
+   * in dyadic mode.
+   */
+  private final boolean dyadic;
+  private EInteger _num;
+  private int _exp;
+
   //--------------------------------------------------------------
 
   private static final int loBit (final EInteger i) {
@@ -34,31 +51,111 @@ extends ExactAccumulator<ERationalAccumulator> {
     final EInteger d2 = d1.Divide(gcd);
     return ERational.Create(n2,d2); }
 
+  //--------------------------------------------------------------
+  // dyadic mode
+  //--------------------------------------------------------------
+
+  private static final int SIGNIFICAND_BITS = Double.PRECISION - 1;
+
+  private static final long SIGNIFICAND_MASK =
+    (1L << SIGNIFICAND_BITS) - 1L;
+
+  /** Exponent of the least significant bit of the subnormals.
+   */
+  private static final int MIN_EXPONENT =
+    Double.MIN_EXPONENT - SIGNIFICAND_BITS;
+
+  /** Signed integer significand of <code>z</code>. */
+
+  private static final long significand (final double z) {
+    final long bits = Double.doubleToRawLongBits(z);
+    final int be = (int) ((bits >>> SIGNIFICAND_BITS) & 0x7FFL);
+    final long s = bits & SIGNIFICAND_MASK;
+    final long m = (0 == be) ? s : (s | (1L << SIGNIFICAND_BITS));
+    return (0L > bits) ? -m : m; }
+
+  /** <code>z == significand(z) * 2<sup>exponent(z)</sup></code>.
+   */
+
+  private static final int exponent (final double z) {
+    final long bits = Double.doubleToRawLongBits(z);
+    final int be = (int) ((bits >>> SIGNIFICAND_BITS) & 0x7FFL);
+    return (0 == be) ? MIN_EXPONENT : (be + MIN_EXPONENT - 1); }
+
+  /** Add <code>n * 2<sup>e</sup></code>. */
+
+  private final void addDyadic (final EInteger n,
+                                final int e) {
+    if (n.isZero()) { return; }
+    if (_num.isZero()) { _num = n; _exp = e; }
+    else if (e >= _exp) { _num = _num.Add(n.ShiftLeft(e-_exp)); }
+    else { _num = _num.ShiftLeft(_exp-e).Add(n); _exp = e; } }
+
+  private final void addDyadic (final double z) {
+    assert Double.isFinite(z);
+    final long s = significand(z);
+    if (0L == s) { return; }
+    // drop trailing zeros, to keep _exp, and shifts, small
+    final int tz = Long.numberOfTrailingZeros(s);
+    addDyadic(EInteger.FromInt64(s >> tz),exponent(z) + tz); }
+
+  private final void addDyadicProduct (final double z0,
+                                       final double z1) {
+    assert Double.isFinite(z0);
+    assert Double.isFinite(z1);
+    final long s0 = significand(z0);
+    final long s1 = significand(z1);
+    if ((0L == s0) || (0L == s1)) { return; }
+    final int tz0 = Long.numberOfTrailingZeros(s0);
+    final int tz1 = Long.numberOfTrailingZeros(s1);
+    addDyadic(
+      EInteger.FromInt64(s0 >> tz0)
+      .Multiply(EInteger.FromInt64(s1 >> tz1)),
+      exponent(z0) + tz0 + exponent(z1) + tz1); }
+
+  /** Reduced, since the denominator is a power of 2. */
+
+  private final ERational dyadicValue () {
+    if (_num.isZero()) { return ERational.Zero; }
+    if (0 <= _exp) { return ERational.FromEInteger(_num.ShiftLeft(_exp)); }
+    final int e = Math.min(loBit(_num),-_exp);
+    return ERational.Create(
+      _num.ShiftRight(e),
+      EInteger.getOne().ShiftLeft(-_exp-e)); }
+
   //--------------------------------------------------------------
 
   @Override
   public final boolean noOverflow () { return true; }
 
   @Override
-  public final Object value () { return _sum; }
+  public final Object value () {
+    if (dyadic) { return dyadicValue(); }
+    return _sum; }
 
   @Override
-  public final double doubleValue () { return _sum.ToDouble(); }
+  public final double doubleValue () {
+    if (dyadic) { return dyadicValue().ToDouble(); }
+    return _sum.ToDouble(); }
 
   @Override
   public final ERationalAccumulator clear () {
     _sum = ERational.Zero;
+    _num = EInteger.getZero();
+    _exp = 0;
     return this; }
 
   @Override
   public final ERationalAccumulator add (final double z) {
     //assert Double.isFinite(z);
+    if (dyadic) { addDyadic(z); return this; }
     _sum = reduce(_sum.Add(ERational.FromDouble(z)));
     return this; }
 
   @Override
   public final ERationalAccumulator add2 (final double z) {
     //assert Double.isFinite(z);
+    if (dyadic) { addDyadicProduct(z,z); return this; }
     final ERational zz = ERational.FromDouble(z);
     _sum = reduce(_sum.Add(zz.Multiply(zz)));
     return this; }
@@ -68,6 +165,13 @@ extends ExactAccumulator<ERationalAccumulator> {
                                            final double z1) {
     //assert Double.isFinite(z0);
     //assert Double.isFinite(z1);
+    if (dyadic) {
+      // (z0-z1)^2 = z0^2 - 2*z0*z1 + z1^2, all exact
+      addDyadicProduct(z0,z0);
+      addDyadicProduct(-z0,z1);
+      addDyadicProduct(-z0,z1);
+      addDyadicProduct(z1,z1);
+      return this; }
     final ERational zz0 = ERational.FromDouble(z0);
     final ERational zz1 = ERational.FromDouble(z1);
     final ERational dz = zz0.Subtract(zz1);
@@ -80,6 +184,7 @@ extends ExactAccumulator<ERationalAccumulator> {
                                                 final double z1) {
     //assert Double.isFinite(z0);
     //assert Double.isFinite(z1);
+    if (dyadic) { addDyadicProduct(z0,z1); return this; }
     _sum = reduce(
       _sum.Add(
         ERational.FromDouble(z0)
@@ -100,16 +205,32 @@ extends ExactAccumulator<ERationalAccumulator> {
   //--------------------------------------------------------------
 
   @Override
-  public final String toString () { return toHexString(_sum); }
+  public final String toString () {
+    return toHexString((ERational) value()); }
 
   //--------------------------------------------------------------
   // construction
   //--------------------------------------------------------------
 
-  private ERationalAccumulator () { super(); clear(); }
+  private ERationalAccumulator (final boolean dyadic) {
+    super();
+    this.dyadic = dyadic;
+    clear(); }
+
+  /** Reduces the sum after every add. */
 
   public static final ERationalAccumulator make () {
-    return new ERationalAccumulator(); }
+    return new ERationalAccumulator(false); }
+
+  /** <code>mode</code> is <code>"reduce"</code>, same as
+   * {@link #make()}, or <code>"dyadic"</code>.
+   */
+
+  public static final ERationalAccumulator make (final String mode) {
+    return switch (mode) {
+      case "reduce" -> new ERationalAccumulator(false);
+      case "dyadic" -> new ERationalAccumulator(true);
+      default -> throw new IllegalArgumentException(mode); }; }
 
   //--------------------------------------------------------------
 }
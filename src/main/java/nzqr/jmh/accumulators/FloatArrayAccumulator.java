@@ -0,0 +1,109 @@
+package nzqr.jmh.accumulators;
+
+import nzqr.java.accumulators.Accumulator;
+
+//----------------------------------------------------------------
+/** Accumulators that take <code>float[]</code> input directly,
+ * for float32 data, without first copying it into a
+ * <code>double[]</code>, which would double the memory traffic.
+ * <p>
+ * Every <code>float</code>, and every product of 2
+ * <code>float</code>s, is exactly representable as a
+ * <code>double</code>, so the defaults, which widen one element
+ * at a time and call the single element methods, lose nothing.
+ * Distances use the rounded <code>double</code> difference,
+ * as the {@link Accumulator} defaults do.
+ * <p>
+ * Prefix sums continue from the current state;
+ * {@link #clear()} first to start from zero.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+@SuppressWarnings("unchecked")
+public interface FloatArrayAccumulator<T extends FloatArrayAccumulator<T>>
+extends Accumulator<T> {
+
+  /** <code>z0-z1</code> in <code>double</code>, then rounded to
+   * <code>float</code>, like the <code>double[]</code>
+   * distances; the <code>float</code> difference may round
+   * differently.
+   */
+
+  static float difference (final float z0,
+                           final float z1) {
+    return (float) (((double) z0) - z1); }
+
+  //--------------------------------------------------------------
+  // totals
+  //--------------------------------------------------------------
+
+  default T addAll (final float[] z) {
+    for (final float zi : z) { add(zi); }
+    return (T) this; }
+
+  default T add2All (final float[] z) {
+    for (final float zi : z) { add2(zi); }
+    return (T) this; }
+
+  default T addProducts (final float[] z0,
+                         final float[] z1) {
+    final int n = z0.length;
+    assert n == z1.length;
+    for (int i=0;i<n;i++) { addProduct(z0[i],z1[i]); }
+    return (T) this; }
+
+  //--------------------------------------------------------------
+  // prefix sums
+  //--------------------------------------------------------------
+
+  default double[] partialSums (final float[] z) {
+    final int n = z.length;
+    final double[] s = new double[n];
+    for (int i=0;i<n;i++) { s[i] = add(z[i]).doubleValue(); }
+    return s; }
+
+  default double[] partialL1s (final float[] z) {
+    final int n = z.length;
+    final double[] s = new double[n];
+    for (int i=0;i<n;i++) {
+      s[i] = add(Math.abs(z[i])).doubleValue(); }
+    return s; }
+
+  default double[] partialL2s (final float[] z) {
+    final int n = z.length;
+    final double[] s = new double[n];
+    for (int i=0;i<n;i++) { s[i] = add2(z[i]).doubleValue(); }
+    return s; }
+
+  default double[] partialDots (final float[] z0,
+                                final float[] z1) {
+    final int n = z0.length;
+    assert n == z1.length;
+    final double[] s = new double[n];
+    for (int i=0;i<n;i++) {
+      s[i] = addProduct(z0[i],z1[i]).doubleValue(); }
+    return s; }
+
+  default double[] partialL1Distances (final float[] z0,
+                                       final float[] z1) {
+    final int n = z0.length;
+    assert n == z1.length;
+    final double[] s = new double[n];
+    for (int i=0;i<n;i++) {
+      s[i] = addL1(z0[i],z1[i]).doubleValue(); }
+    return s; }
+
+  default double[] partialL2Distances (final float[] z0,
+                                       final float[] z1) {
+    final int n = z0.length;
+    assert n == z1.length;
+    final double[] s = new double[n];
+    for (int i=0;i<n;i++) {
+      s[i] = addL2(z0[i],z1[i]).doubleValue(); }
+    return s; }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
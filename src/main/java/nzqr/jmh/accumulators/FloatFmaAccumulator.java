@@ -1,16 +1,34 @@
 package nzqr.jmh.accumulators;
 
-import nzqr.java.accumulators.Accumulator;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
 
 /** Naive sum of <code>double</code> values with float
  * accumulator (for testing).
+ * Squares and products use <code>fma</code>.
+ * <p>
+ * The <code>float[]</code> totals are explicitly vectorized,
+ * with 4 independent vector accumulators, so they add in a
+ * different order than the <code>double[]</code> methods.
+ * The <code>float[]</code> prefix sums are sequential, like the
+ * <code>double[]</code> ones, but skip the conversions.
  *
  * @author palisades dot lakes at gmail dot com
- * @version 2019-04-21
+ * @version 2026-10-17
  */
 public final class FloatFmaAccumulator
 
-implements Accumulator<FloatFmaAccumulator> {
+implements SegmentAccumulator<FloatFmaAccumulator>,
+FloatArrayAccumulator<FloatFmaAccumulator> {
+
+  private static final VectorSpecies<Float> SPECIES =
+    FloatVector.SPECIES_PREFERRED;
+
+  private static final int LANES = SPECIES.length();
+
+  /** Elements per iteration of the unrolled loops. */
+  private static final int STRIDE = 4 * LANES;
 
   private float _sum;
 
@@ -51,6 +69,146 @@ implements Accumulator<FloatFmaAccumulator> {
     _sum = Math.fma((float) z0, (float) z1, _sum);
     return this; }
 
+  //--------------------------------------------------------------
+  // float[] totals, vectorized
+  //--------------------------------------------------------------
+
+  @Override
+  public final FloatFmaAccumulator addAll (final float[] z) {
+    final int n = z.length;
+    final int m = n - (n % STRIDE);
+    FloatVector a0 = FloatVector.zero(SPECIES);
+    FloatVector a1 = FloatVector.zero(SPECIES);
+    FloatVector a2 = FloatVector.zero(SPECIES);
+    FloatVector a3 = FloatVector.zero(SPECIES);
+    for (int i=0;i<m;i+=STRIDE) {
+      a0 = a0.add(FloatVector.fromArray(SPECIES,z,i));
+      a1 = a1.add(FloatVector.fromArray(SPECIES,z,i+LANES));
+      a2 = a2.add(FloatVector.fromArray(SPECIES,z,i+2*LANES));
+      a3 = a3.add(FloatVector.fromArray(SPECIES,z,i+3*LANES)); }
+    float s =
+      a0.add(a1).add(a2.add(a3)).reduceLanes(VectorOperators.ADD);
+    for (int i=m;i<n;i++) { s += z[i]; }
+    _sum += s;
+    return this; }
+
+  @Override
+  public final FloatFmaAccumulator add2All (final float[] z) {
+    final int n = z.length;
+    final int m = n - (n % STRIDE);
+    FloatVector a0 = FloatVector.zero(SPECIES);
+    FloatVector a1 = FloatVector.zero(SPECIES);
+    FloatVector a2 = FloatVector.zero(SPECIES);
+    FloatVector a3 = FloatVector.zero(SPECIES);
+    for (int i=0;i<m;i+=STRIDE) {
+      final FloatVector x0 = FloatVector.fromArray(SPECIES,z,i);
+      final FloatVector x1 = FloatVector.fromArray(SPECIES,z,i+LANES);
+      final FloatVector x2 = FloatVector.fromArray(SPECIES,z,i+2*LANES);
+      final FloatVector x3 = FloatVector.fromArray(SPECIES,z,i+3*LANES);
+      a0 = x0.fma(x0,a0);
+      a1 = x1.fma(x1,a1);
+      a2 = x2.fma(x2,a2);
+      a3 = x3.fma(x3,a3); }
+    float s =
+      a0.add(a1).add(a2.add(a3)).reduceLanes(VectorOperators.ADD);
+    for (int i=m;i<n;i++) { s = Math.fma(z[i],z[i],s); }
+    _sum += s;
+    return this; }
+
+  @Override
+  public final FloatFmaAccumulator addProducts (final float[] z0,
+                                                final float[] z1) {
+    final int n = z0.length;
+    assert n == z1.length;
+    final int m = n - (n % STRIDE);
+    FloatVector a0 = FloatVector.zero(SPECIES);
+    FloatVector a1 = FloatVector.zero(SPECIES);
+    FloatVector a2 = FloatVector.zero(SPECIES);
+    FloatVector a3 = FloatVector.zero(SPECIES);
+    for (int i=0;i<m;i+=STRIDE) {
+      a0 = FloatVector.fromArray(SPECIES,z0,i)
+        .fma(FloatVector.fromArray(SPECIES,z1,i),a0);
+      a1 = FloatVector.fromArray(SPECIES,z0,i+LANES)
+        .fma(FloatVector.fromArray(SPECIES,z1,i+LANES),a1);
+      a2 = FloatVector.fromArray(SPECIES,z0,i+2*LANES)
+        .fma(FloatVector.fromArray(SPECIES,z1,i+2*LANES),a2);
+      a3 = FloatVector.fromArray(SPECIES,z0,i+3*LANES)
+        .fma(FloatVector.fromArray(SPECIES,z1,i+3*LANES),a3); }
+    float s =
+      a0.add(a1).add(a2.add(a3)).reduceLanes(VectorOperators.ADD);
+    for (int i=m;i<n;i++) { s = Math.fma(z0[i],z1[i],s); }
+    _sum += s;
+    return this; }
+
+  //--------------------------------------------------------------
+  // float[] prefix sums
+  //--------------------------------------------------------------
+
+  @Override
+  public final double[] partialSums (final float[] z) {
+    final int n = z.length;
+    final double[] p = new double[n];
+    float s = _sum;
+    for (int i=0;i<n;i++) { s += z[i]; p[i] = s; }
+    _sum = s;
+    return p; }
+
+  @Override
+  public final double[] partialL1s (final float[] z) {
+    final int n = z.length;
+    final double[] p = new double[n];
+    float s = _sum;
+    for (int i=0;i<n;i++) { s += Math.abs(z[i]); p[i] = s; }
+    _sum = s;
+    return p; }
+
+  @Override
+  public final double[] partialL2s (final float[] z) {
+    final int n = z.length;
+    final double[] p = new double[n];
+    float s = _sum;
+    for (int i=0;i<n;i++) { s = Math.fma(z[i],z[i],s); p[i] = s; }
+    _sum = s;
+    return p; }
+
+  @Override
+  public final double[] partialDots (final float[] z0,
+                                     final float[] z1) {
+    final int n = z0.length;
+    assert n == z1.length;
+    final double[] p = new double[n];
+    float s = _sum;
+    for (int i=0;i<n;i++) { s = Math.fma(z0[i],z1[i],s); p[i] = s; }
+    _sum = s;
+    return p; }
+
+  @Override
+  public final double[] partialL1Distances (final float[] z0,
+                                            final float[] z1) {
+    final int n = z0.length;
+    assert n == z1.length;
+    final double[] p = new double[n];
+    float s = _sum;
+    for (int i=0;i<n;i++) {
+      s += Math.abs(FloatArrayAccumulator.difference(z0[i],z1[i]));
+      p[i] = s; }
+    _sum = s;
+    return p; }
+
+  @Override
+  public final double[] partialL2Distances (final float[] z0,
+                                            final float[] z1) {
+    final int n = z0.length;
+    assert n == z1.length;
+    final double[] p = new double[n];
+    float s = _sum;
+    for (int i=0;i<n;i++) {
+      final float d = FloatArrayAccumulator.difference(z0[i],z1[i]);
+      s = Math.fma(d,d,s);
+      p[i] = s; }
+    _sum = s;
+    return p; }
+
   //--------------------------------------------------------------
   // construction
   //--------------------------------------------------------------
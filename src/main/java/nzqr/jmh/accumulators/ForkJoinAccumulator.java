@@ -0,0 +1,164 @@
+package nzqr.jmh.accumulators;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import nzqr.java.accumulators.Accumulator;
+
+//----------------------------------------------------------------
+/** Parallel bulk operations for a {@link MergeableAccumulator}.
+ * <p>
+ * {@link #addAll(double[])}, {@link #add2All(double[])} and
+ * {@link #addProducts(double[],double[])} split the input
+ * recursively in a {@link ForkJoinPool}, accumulate each leaf
+ * range in a fresh {@link MergeableAccumulator#empty()}
+ * accumulator, and merge the results into the wrapped one.
+ * Single element operations go straight to the wrapped
+ * accumulator.
+ * <p>
+ * <em>NOT</em> thread safe! Only the bulk operations run in
+ * parallel.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+@SuppressWarnings("unchecked")
+public final class ForkJoinAccumulator<T extends MergeableAccumulator<T>>
+implements Accumulator<ForkJoinAccumulator<T>> {
+
+  //--------------------------------------------------------------
+
+  /** Don't split ranges shorter than this. */
+  private static final int MIN_GRAIN = 1 << 16;
+
+  /** Target leaf tasks per worker thread. */
+  private static final int TASKS_PER_THREAD = 4;
+
+  private final T root;
+  private final ForkJoinPool pool;
+
+  //--------------------------------------------------------------
+
+  private final int grain (final int n) {
+    return Math.max(
+      MIN_GRAIN,
+      n / (TASKS_PER_THREAD * pool.getParallelism())); }
+
+  /** Accumulate <code>[start,end)</code> into <code>a</code>. */
+
+  @FunctionalInterface
+  private static interface Leaf<T> {
+    T apply (T a, int start, int end); }
+
+  private final class Split extends RecursiveTask<T> {
+    private static final long serialVersionUID = 0L;
+    private final transient Leaf<T> leaf;
+    private final int grain;
+    private final int start;
+    private final int end;
+    Split (final Leaf<T> leaf,
+           final int grain,
+           final int start,
+           final int end) {
+      this.leaf = leaf;
+      this.grain = grain;
+      this.start = start;
+      this.end = end; }
+    @Override
+    protected final T compute () {
+      if ((end - start) <= grain) {
+        return leaf.apply(root.empty(),start,end); }
+      final int mid = (start + end) >>> 1;
+      final Split left = new Split(leaf,grain,start,mid);
+      left.fork();
+      final T right = new Split(leaf,grain,mid,end).compute();
+      return right.merge(left.join()); } }
+
+  private final ForkJoinAccumulator<T> parallel (final Leaf<T> leaf,
+                                                 final int n) {
+    final int g = grain(n);
+    if (n <= g) { leaf.apply(root,0,n); }
+    else { root.merge(pool.invoke(new Split(leaf,g,0,n))); }
+    return this; }
+
+  //--------------------------------------------------------------
+  // Accumulator interface
+  //--------------------------------------------------------------
+
+  @Override
+  public final boolean isExact () { return root.isExact(); }
+
+  @Override
+  public final boolean noOverflow () { return root.noOverflow(); }
+
+  @Override
+  public final ForkJoinAccumulator<T> clear () {
+    root.clear();
+    return this; }
+
+  @Override
+  public final Object value () { return root.value(); }
+
+  @Override
+  public final double doubleValue () { return root.doubleValue(); }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final ForkJoinAccumulator<T> add (final double z) {
+    root.add(z);
+    return this; }
+
+  @Override
+  public final ForkJoinAccumulator<T> add2 (final double z) {
+    root.add2(z);
+    return this; }
+
+  @Override
+  public final ForkJoinAccumulator<T> addProduct (final double z0,
+                                                  final double z1) {
+    root.addProduct(z0,z1);
+    return this; }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final ForkJoinAccumulator<T> addAll (final double[] z) {
+    return parallel((a,start,end) -> a.addAll(z,start,end),
+      z.length); }
+
+  @Override
+  public final ForkJoinAccumulator<T> add2All (final double[] z) {
+    return parallel((a,start,end) -> a.add2All(z,start,end),
+      z.length); }
+
+  @Override
+  public final ForkJoinAccumulator<T> addProducts (final double[] z0,
+                                                   final double[] z1) {
+    assert z0.length == z1.length;
+    return parallel(
+      (a,start,end) -> a.addProducts(z0,z1,start,end),
+      z0.length); }
+
+  //--------------------------------------------------------------
+  // construction
+  //--------------------------------------------------------------
+
+  private ForkJoinAccumulator (final T root,
+                               final ForkJoinPool pool) {
+    this.root = root;
+    this.pool = pool; }
+
+  public static final <T extends MergeableAccumulator<T>>
+  ForkJoinAccumulator<T> make (final T root,
+                               final ForkJoinPool pool) {
+    return new ForkJoinAccumulator<T>(root,pool); }
+
+  public static final <T extends MergeableAccumulator<T>>
+  ForkJoinAccumulator<T> make (final T root) {
+    return make(root,ForkJoinPool.commonPool()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
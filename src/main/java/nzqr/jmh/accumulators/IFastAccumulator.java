@@ -2,7 +2,6 @@ package nzqr.jmh.accumulators;
 
 import com.carrotsearch.hppc.DoubleArrayList;
 
-import nzqr.java.accumulators.Accumulator;
 import nzqr.java.numbers.Doubles;
 
 //----------------------------------------------------------------
@@ -10,11 +9,26 @@ import nzqr.java.numbers.Doubles;
  * Best for summing relatively small collections of numbers
  * via {@link #addAll(double[])}.
  * <p>
- * <b>TODO:</b> measure cross-over size where this beats
- * {@link nzqr.java.accumulators.ZhuHayesAccumulator}.
+ * See {@link nzqr.jmh.benchmarks.accumulate.Crossover} for
+ * the size where this stops beating the ZhuHayes accumulators,
+ * and {@link AdaptiveAccumulator}, which switches at that size.
  * <p>
  * This uses the 'no branch' version of 'twoSum'.
  * <p>
+ * {@link #merge(IFastAccumulator)} appends the buffer of
+ * another accumulator, for {@link ForkJoinAccumulator}.
+ * <p>
+ * By default the buffer holds every value added, so memory
+ * grows with the stream, and {@link #doubleValue()} copies it.
+ * {@link #make(int)} bounds the buffer: once it reaches
+ * <code>threshold</code> values, it is distilled in place to
+ * non-overlapping partials with the same exact sum
+ * (Shewchuk's grow-expansion, as in Python's
+ * <code>math.fsum</code>), usually a few dozen doubles.
+ * {@link #doubleValue()} then distills what was added since
+ * the last read and rounds the partials, without copying,
+ * so repeated reads are cheap.
+ * <p>
  * Primary reference:
  * <p>
  * <a href="http://epubs.siam.org/doi/abs/10.1137/070710020?journalCode=sjoce3" >
@@ -44,11 +58,13 @@ import nzqr.java.numbers.Doubles;
  * <em>NOT</em> thread safe!
  * <p>
  * @author palisades dot lakes at gmail dot com
- * @version 2019-04-12
+ * @version 2026-10-17
  */
 
 public final class IFastAccumulator
-implements Accumulator<IFastAccumulator> {
+implements IncrementalPartials<IFastAccumulator>,
+           MergeableAccumulator<IFastAccumulator>,
+           SegmentAccumulator<IFastAccumulator> {
 
   //--------------------------------------------------------------
   // IFastSum
@@ -208,11 +224,101 @@ implements Accumulator<IFastAccumulator> {
 
   private final DoubleArrayList _z;
 
+  /** Distill the buffer when it gets this long;
+   * <code>0</code> for an unbounded buffer.
+   */
+  private final int threshold;
+
+  /** <code>_z[0,distilled)</code> are non-overlapping partials,
+   * in increasing magnitude.
+   */
+  private int distilled;
+
+  /** Non-finite partial sum, if distilling overflowed,
+   * otherwise <code>0.0</code>.
+   */
+  private double overflow;
+
+  //--------------------------------------------------------------
+  // bounded buffer
+  //--------------------------------------------------------------
+  /** Replace the buffer with non-overlapping partials, in
+   * increasing magnitude, with the same exact sum.
+   * Writes only to entries that have already been read.
+   */
+
+  private final void distill () {
+    final double[] z = _z.buffer;
+    final int n = _z.size();
+    if (0.0 != overflow) { _z.elementsCount = 0; return; }
+    int m = distilled;
+    for (int i=distilled;i<n;i++) {
+      double x = z[i];
+      int j = 0;
+      for (int k=0;k<m;k++) {
+        double y = z[k];
+        if (Math.abs(x) < Math.abs(y)) {
+          final double t = x; x = y; y = t; }
+        final double hi = x + y;
+        final double lo = y - (hi - x);
+        if (0.0 != lo) { z[j++] = lo; }
+        x = hi; }
+      // might get +/- Infinity due to overflow
+      if (! Double.isFinite(x)) {
+        overflow = x;
+        _z.elementsCount = 0;
+        distilled = 0;
+        return; }
+      if (0.0 != x) { z[j++] = x; }
+      m = j; }
+    _z.elementsCount = m;
+    distilled = m; }
+
+  /** Correctly rounded sum of the distilled partials,
+   * with half-even rounding across partials.
+   */
+
+  private final double round () {
+    final double[] z = _z.buffer;
+    int n = _z.size();
+    if (0 == n) { return 0.0; }
+    double hi = z[--n];
+    double lo = 0.0;
+    while (0 < n) {
+      final double x = hi;
+      final double y = z[--n];
+      hi = x + y;
+      lo = y - (hi - x);
+      if (0.0 != lo) { break; } }
+    if ((0 < n)
+      && (((lo < 0.0) && (z[n-1] < 0.0))
+        || ((lo > 0.0) && (z[n-1] > 0.0)))) {
+      final double y = lo * 2.0;
+      final double x = hi + y;
+      if (y == (x - hi)) { hi = x; } }
+    return hi; }
+
+  /** Append <code>x[start,end)</code>, distilling whenever the
+   * buffer reaches {@link #threshold}.
+   */
+
+  private final void append (final double[] x,
+                             final int start,
+                             final int end) {
+    if (0 == threshold) { _z.add(x,start,end-start); return; }
+    for (int k=start;k<end;) {
+      final int kk = Math.min(end,k+(threshold-_z.size()));
+      _z.add(x,k,kk-k);
+      k = kk;
+      if (_z.size() >= threshold) { distill(); } } }
+
   //--------------------------------------------------------------
 
   @Override
   public final IFastAccumulator clear () {
     _z.clear();
+    distilled = 0;
+    overflow = 0.0;
     return this; }
 
   //--------------------------------------------------------------
@@ -223,10 +329,15 @@ implements Accumulator<IFastAccumulator> {
 
   @Override
   public final double doubleValue () {
+    if (0 < threshold) {
+      distill();
+      if (0.0 != overflow) { return overflow; }
+      return round(); }
     // TODO: is the state of z valid after iFastSum?
     // could we use it to accelerate the iteration after
     // adding more values, rather that starting from scratch with
     // all the original values each time?
+    if (_z.isEmpty()) { return 0.0; }
     final double[] z = _z.toArray();
     final int[] n = new int[1];
     n[0] = z.length;
@@ -238,13 +349,21 @@ implements Accumulator<IFastAccumulator> {
   public final IFastAccumulator add (final double x) {
     assert Double.isFinite(x);
     _z.add(x);
+    if ((0 < threshold) && (_z.size() >= threshold)) { distill(); }
     return this; }
 
   //--------------------------------------------------------------
 
   @Override
   public final IFastAccumulator addAll (final double[] x) {
-    _z.add(x);
+    append(x,0,x.length);
+    return this; }
+
+  @Override
+  public final IFastAccumulator addAll (final double[] x,
+                                        final int start,
+                                        final int end) {
+    append(x,start,end);
     return this; }
 
   //--------------------------------------------------------------
@@ -271,15 +390,82 @@ implements Accumulator<IFastAccumulator> {
     add(e);
     return this; }
 
+  //--------------------------------------------------------------
+  // for AdaptiveAccumulator
+  //--------------------------------------------------------------
+
+  /** Number of buffered values. */
+
+  final int size () { return _z.size(); }
+
+  /** Add the buffered values to <code>that</code>. */
+
+  final void addTo (final MergeableAccumulator<?> that) {
+    that.addAll(_z.buffer,0,_z.size()); }
+
+  //--------------------------------------------------------------
+  // merging
+  //--------------------------------------------------------------
+
+  @Override
+  public final IFastAccumulator merge (final IFastAccumulator that) {
+    assert this != that;
+    append(that._z.buffer,0,that._z.size());
+    if (0.0 != that.overflow) { overflow += that.overflow; }
+    return this; }
+
+  @Override
+  public final IFastAccumulator empty () {
+    return new IFastAccumulator(threshold); }
+
   //--------------------------------------------------------------
   // construction
   //--------------------------------------------------------------
 
-  private IFastAccumulator () { _z = new DoubleArrayList(); }
+  /** Smallest bounded threshold. Non-overlapping partials
+   * can't share a bit position, and doubles span 2098 of them,
+   * so distilling always leaves room for more values.
+   */
+  public static final int MIN_THRESHOLD = 1 << 12;
+
+  /** Threshold for <code>make("bounded")</code>. */
+  public static final int DEFAULT_THRESHOLD = 1 << 14;
+
+  private IFastAccumulator (final int threshold) {
+    this.threshold = threshold;
+    distilled = 0;
+    overflow = 0.0;
+    _z =
+      (0 == threshold)
+      ? new DoubleArrayList()
+      : new DoubleArrayList(threshold); }
 
+  /** Unbounded buffer. */
 
   public static final IFastAccumulator make () {
-    return new IFastAccumulator(); }
+    return new IFastAccumulator(0); }
+
+  /** Buffer distilled in place whenever it reaches
+   * <code>threshold</code> values.
+   */
+
+  public static final IFastAccumulator make (final int threshold) {
+    if (MIN_THRESHOLD > threshold) {
+      throw new IllegalArgumentException(
+        "threshold " + threshold + " < " + MIN_THRESHOLD); }
+    return new IFastAccumulator(threshold); }
+
+  /** <code>mode</code> is <code>"unbounded"</code>, same as
+   * {@link #make()}, <code>"bounded"</code>, for
+   * {@link #DEFAULT_THRESHOLD}, or a threshold, as a decimal
+   * integer.
+   */
+
+  public static final IFastAccumulator make (final String mode) {
+    return switch (mode) {
+      case "unbounded" -> make();
+      case "bounded" -> make(DEFAULT_THRESHOLD);
+      default -> make(Integer.parseInt(mode)); }; }
 
   //--------------------------------------------------------------
 } // end of class
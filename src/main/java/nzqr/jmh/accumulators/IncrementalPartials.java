@@ -0,0 +1,91 @@
+package nzqr.jmh.accumulators;
+
+import nzqr.java.accumulators.Accumulator;
+
+//----------------------------------------------------------------
+/** Exact accumulators whose prefix sums are computed
+ * incrementally, with a {@link RunningRound},
+ * rather than by rounding the whole state after every element,
+ * which is <code>O(n<sup>2</sup>)</code> for
+ * {@link IFastAccumulator}, and <code>O(n*4096)</code> for
+ * the ZhuHayes accumulators.
+ * <p>
+ * Prefix sums continue from the current state;
+ * {@link #clear()} first to start from zero.
+ * Squares and products are added as the 2 doubles of the exact
+ * product; distances use the rounded difference, as the
+ * {@link Accumulator} defaults do.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-16
+ */
+
+public interface IncrementalPartials<T extends IncrementalPartials<T>>
+extends Accumulator<T> {
+
+  //--------------------------------------------------------------
+
+  @Override
+  default double[] partialSums (final double[] x) {
+    final RunningRound r = new RunningRound(this);
+    final double[] s = new double[x.length];
+    for (int i=0;i<x.length;i++) {
+      r.add(x[i]);
+      s[i] = r.round(); }
+    return s; }
+
+  @Override
+  default double[] partialL1s (final double[] x) {
+    final RunningRound r = new RunningRound(this);
+    final double[] s = new double[x.length];
+    for (int i=0;i<x.length;i++) {
+      r.add(Math.abs(x[i]));
+      s[i] = r.round(); }
+    return s; }
+
+  @Override
+  default double[] partialL2s (final double[] x) {
+    final RunningRound r = new RunningRound(this);
+    final double[] s = new double[x.length];
+    for (int i=0;i<x.length;i++) {
+      r.addProduct(x[i],x[i]);
+      s[i] = r.round(); }
+    return s; }
+
+  @Override
+  default double[] partialDots (final double[] x0,
+                                final double[] x1) {
+    assert x0.length == x1.length;
+    final RunningRound r = new RunningRound(this);
+    final double[] s = new double[x0.length];
+    for (int i=0;i<x0.length;i++) {
+      r.addProduct(x0[i],x1[i]);
+      s[i] = r.round(); }
+    return s; }
+
+  @Override
+  default double[] partialL1Distances (final double[] x0,
+                                       final double[] x1) {
+    assert x0.length == x1.length;
+    final RunningRound r = new RunningRound(this);
+    final double[] s = new double[x0.length];
+    for (int i=0;i<x0.length;i++) {
+      r.add(Math.abs(x0[i]-x1[i]));
+      s[i] = r.round(); }
+    return s; }
+
+  @Override
+  default double[] partialL2Distances (final double[] x0,
+                                       final double[] x1) {
+    assert x0.length == x1.length;
+    final RunningRound r = new RunningRound(this);
+    final double[] s = new double[x0.length];
+    for (int i=0;i<x0.length;i++) {
+      final double d = x0[i] - x1[i];
+      r.addProduct(d,d);
+      s[i] = r.round(); }
+    return s; }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
@@ -1,7 +1,5 @@
 package nzqr.jmh.accumulators;
 
-import nzqr.java.accumulators.Accumulator;
-
 //----------------------------------------------------------------
 /** Compensated summation for lots of numbers.
  * Only makes sense for floating point numbers of various kinds.
@@ -22,7 +20,7 @@ import nzqr.java.accumulators.Accumulator;
 
 public final class KahanFmaAccumulator
 
-implements Accumulator<KahanFmaAccumulator> {
+implements SegmentAccumulator<KahanFmaAccumulator> {
 
   private double s = 0.0;
   private double c = 0.0;
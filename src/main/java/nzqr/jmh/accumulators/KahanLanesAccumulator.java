@@ -0,0 +1,215 @@
+package nzqr.jmh.accumulators;
+
+import java.lang.foreign.MemorySegment;
+
+//----------------------------------------------------------------
+/** Compensated summation, as in {@link KahanFmaAccumulator},
+ * but with 4 independent <code>(s,c)</code> lanes, so the bulk
+ * loops aren't bound by the latency of one chain of dependent
+ * adds. Element <code>i</code> goes to lane <code>i%4</code>;
+ * single adds go to lane 0.
+ * {@link #doubleValue()} combines the lanes, and their
+ * corrections, with one more Kahan sum.
+ * <p>
+ * Mutable! Not thread safe!
+ *
+ * @see <a
+ *      href="https://en.wikipedia.org/wiki/Kahan_summation_algorithm">
+ *      Wikipedia:Kahan_summation_algorithm</a>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-16
+ */
+
+public final class KahanLanesAccumulator
+
+implements SegmentAccumulator<KahanLanesAccumulator> {
+
+  private static final int LANES = 4;
+
+  private final double[] s = new double[LANES];
+  private final double[] c = new double[LANES];
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final boolean isExact () { return false; }
+
+  @Override
+  public final boolean noOverflow () { return false; }
+
+  @Override
+  public final Object value () {
+    return Double.valueOf(doubleValue()); }
+
+  @Override
+  public final double doubleValue () {
+    double ss = 0.0;
+    double cc = 0.0;
+    // s[0], -c[0], s[1], -c[1], ...
+    for (int k=0;k<2*LANES;k++) {
+      final double z = (0 == (k & 1)) ? s[k >> 1] : -c[k >> 1];
+      final double zz = z - cc;
+      final double t = ss + zz;
+      cc = (t - ss) - zz;
+      ss = t; }
+    return ss; }
+
+  @Override
+  public final KahanLanesAccumulator clear () {
+    for (int l=0;l<LANES;l++) { s[l] = 0.0; c[l] = 0.0; }
+    return this; }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final KahanLanesAccumulator add (final double z) {
+    assert Double.isFinite(z);
+    final double zz = z - c[0];
+    final double ss = s[0] + zz;
+    c[0] = (ss - s[0]) - zz;
+    s[0] = ss;
+    return this; }
+
+  @Override
+  public final KahanLanesAccumulator add2 (final double z) {
+    assert Double.isFinite(z);
+    final double zz = Math.fma(z,z,-c[0]);
+    final double ss = s[0] + zz;
+    c[0] = (ss - s[0]) - zz;
+    s[0] = ss;
+    return this; }
+
+  @Override
+  public final KahanLanesAccumulator addProduct (final double z0,
+                                                 final double z1) {
+    assert Double.isFinite(z0);
+    assert Double.isFinite(z1);
+    final double zz = Math.fma(z0,z1,-c[0]);
+    final double ss = s[0] + zz;
+    c[0] = (ss - s[0]) - zz;
+    s[0] = ss;
+    return this; }
+
+  //--------------------------------------------------------------
+  // bulk operations, lanes in locals
+  //--------------------------------------------------------------
+
+  @Override
+  public final KahanLanesAccumulator addAll (final double[] z) {
+    double s0 = s[0], s1 = s[1], s2 = s[2], s3 = s[3];
+    double c0 = c[0], c1 = c[1], c2 = c[2], c3 = c[3];
+    final int n = z.length;
+    final int m = n - (n % LANES);
+    for (int i=0;i<m;i+=LANES) {
+      final double z0 = z[i] - c0;
+      final double z1 = z[i+1] - c1;
+      final double z2 = z[i+2] - c2;
+      final double z3 = z[i+3] - c3;
+      final double t0 = s0 + z0;
+      final double t1 = s1 + z1;
+      final double t2 = s2 + z2;
+      final double t3 = s3 + z3;
+      c0 = (t0 - s0) - z0;
+      c1 = (t1 - s1) - z1;
+      c2 = (t2 - s2) - z2;
+      c3 = (t3 - s3) - z3;
+      s0 = t0; s1 = t1; s2 = t2; s3 = t3; }
+    s[0] = s0; s[1] = s1; s[2] = s2; s[3] = s3;
+    c[0] = c0; c[1] = c1; c[2] = c2; c[3] = c3;
+    for (int i=m;i<n;i++) { add(z[i]); }
+    return this; }
+
+  @Override
+  public final KahanLanesAccumulator add2All (final double[] z) {
+    double s0 = s[0], s1 = s[1], s2 = s[2], s3 = s[3];
+    double c0 = c[0], c1 = c[1], c2 = c[2], c3 = c[3];
+    final int n = z.length;
+    final int m = n - (n % LANES);
+    for (int i=0;i<m;i+=LANES) {
+      final double z0 = Math.fma(z[i],z[i],-c0);
+      final double z1 = Math.fma(z[i+1],z[i+1],-c1);
+      final double z2 = Math.fma(z[i+2],z[i+2],-c2);
+      final double z3 = Math.fma(z[i+3],z[i+3],-c3);
+      final double t0 = s0 + z0;
+      final double t1 = s1 + z1;
+      final double t2 = s2 + z2;
+      final double t3 = s3 + z3;
+      c0 = (t0 - s0) - z0;
+      c1 = (t1 - s1) - z1;
+      c2 = (t2 - s2) - z2;
+      c3 = (t3 - s3) - z3;
+      s0 = t0; s1 = t1; s2 = t2; s3 = t3; }
+    s[0] = s0; s[1] = s1; s[2] = s2; s[3] = s3;
+    c[0] = c0; c[1] = c1; c[2] = c2; c[3] = c3;
+    for (int i=m;i<n;i++) { add2(z[i]); }
+    return this; }
+
+  @Override
+  public final KahanLanesAccumulator addProducts (final double[] x,
+                                                  final double[] y) {
+    final int n = x.length;
+    assert n == y.length;
+    double s0 = s[0], s1 = s[1], s2 = s[2], s3 = s[3];
+    double c0 = c[0], c1 = c[1], c2 = c[2], c3 = c[3];
+    final int m = n - (n % LANES);
+    for (int i=0;i<m;i+=LANES) {
+      final double z0 = Math.fma(x[i],y[i],-c0);
+      final double z1 = Math.fma(x[i+1],y[i+1],-c1);
+      final double z2 = Math.fma(x[i+2],y[i+2],-c2);
+      final double z3 = Math.fma(x[i+3],y[i+3],-c3);
+      final double t0 = s0 + z0;
+      final double t1 = s1 + z1;
+      final double t2 = s2 + z2;
+      final double t3 = s3 + z3;
+      c0 = (t0 - s0) - z0;
+      c1 = (t1 - s1) - z1;
+      c2 = (t2 - s2) - z2;
+      c3 = (t3 - s3) - z3;
+      s0 = t0; s1 = t1; s2 = t2; s3 = t3; }
+    s[0] = s0; s[1] = s1; s[2] = s2; s[3] = s3;
+    c[0] = c0; c[1] = c1; c[2] = c2; c[3] = c3;
+    for (int i=m;i<n;i++) { addProduct(x[i],y[i]); }
+    return this; }
+
+  //--------------------------------------------------------------
+  // MemorySegment input
+  //--------------------------------------------------------------
+
+  @Override
+  public final KahanLanesAccumulator addAll (final MemorySegment z) {
+    double s0 = s[0], s1 = s[1], s2 = s[2], s3 = s[3];
+    double c0 = c[0], c1 = c[1], c2 = c[2], c3 = c[3];
+    final long n = z.byteSize() / Double.BYTES;
+    final long m = n - (n % LANES);
+    for (long i=0;i<m;i+=LANES) {
+      final double z0 = z.getAtIndex(ELEMENT,i) - c0;
+      final double z1 = z.getAtIndex(ELEMENT,i+1) - c1;
+      final double z2 = z.getAtIndex(ELEMENT,i+2) - c2;
+      final double z3 = z.getAtIndex(ELEMENT,i+3) - c3;
+      final double t0 = s0 + z0;
+      final double t1 = s1 + z1;
+      final double t2 = s2 + z2;
+      final double t3 = s3 + z3;
+      c0 = (t0 - s0) - z0;
+      c1 = (t1 - s1) - z1;
+      c2 = (t2 - s2) - z2;
+      c3 = (t3 - s3) - z3;
+      s0 = t0; s1 = t1; s2 = t2; s3 = t3; }
+    s[0] = s0; s[1] = s1; s[2] = s2; s[3] = s3;
+    c[0] = c0; c[1] = c1; c[2] = c2; c[3] = c3;
+    for (long i=m;i<n;i++) { add(z.getAtIndex(ELEMENT,i)); }
+    return this; }
+
+  //--------------------------------------------------------------
+  // construction
+  //--------------------------------------------------------------
+
+  private KahanLanesAccumulator () { }
+
+  public static final KahanLanesAccumulator make () {
+    return new KahanLanesAccumulator(); }
+
+  //--------------------------------------------------------------
+} // end of class
+//--------------------------------------------------------------
@@ -0,0 +1,55 @@
+package nzqr.jmh.accumulators;
+
+import nzqr.java.accumulators.Accumulator;
+
+//----------------------------------------------------------------
+/** Accumulators whose state can be combined exactly,
+ * so a long input can be split across threads, each with its
+ * own accumulator, and the partial results merged.
+ * <p>
+ * The range methods add <code>z[start,end)</code>;
+ * the defaults just loop over the single element methods.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-16
+ */
+
+@SuppressWarnings("unchecked")
+public interface MergeableAccumulator<T extends MergeableAccumulator<T>>
+extends Accumulator<T> {
+
+  //--------------------------------------------------------------
+  /** Add the exact value of <code>that</code> to this.
+   * <code>that</code> is not modified.
+   */
+
+  T merge (final T that);
+
+  /** A new, empty accumulator, like this one. */
+
+  T empty ();
+
+  //--------------------------------------------------------------
+
+  default T addAll (final double[] z,
+                    final int start,
+                    final int end) {
+    for (int k=start;k<end;k++) { add(z[k]); }
+    return (T) this; }
+
+  default T add2All (final double[] z,
+                     final int start,
+                     final int end) {
+    for (int k=start;k<end;k++) { add2(z[k]); }
+    return (T) this; }
+
+  default T addProducts (final double[] z0,
+                         final double[] z1,
+                         final int start,
+                         final int end) {
+    for (int k=start;k<end;k++) { addProduct(z0[k],z1[k]); }
+    return (T) this; }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
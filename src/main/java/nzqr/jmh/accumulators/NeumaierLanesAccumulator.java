@@ -0,0 +1,218 @@
+package nzqr.jmh.accumulators;
+
+import java.lang.foreign.MemorySegment;
+
+//----------------------------------------------------------------
+/** Neumaier's improved Kahan-Babuska summation, with 4
+ * independent <code>(s,c)</code> lanes, like
+ * {@link KahanLanesAccumulator}.
+ * <p>
+ * Each lane keeps a running sum <code>s</code>, and adds the
+ * rounding error of every add to a separate correction
+ * <code>c</code>, which is only added to <code>s</code> at the
+ * end. Neumaier's branch on <code>|s| &gt;= |z|</code> is
+ * replaced by Knuth's branch free twoSum, which gives the same
+ * error term.
+ * Products also add the fma error of the product to
+ * <code>c</code>, as in Ogita, Rump and Oishi's Dot2.
+ * {@link #doubleValue()} combines the lanes the same way.
+ * <p>
+ * Mutable! Not thread safe!
+ *
+ * @see <a
+ *      href="https://en.wikipedia.org/wiki/Kahan_summation_algorithm#Further_enhancements">
+ *      Wikipedia:Kahan_summation_algorithm</a>
+ *
+ * @see <a
+ *      href="https://doi.org/10.1137/030601818">
+ *      Ogita, Rump, and Oishi, "Accurate Sum and Dot Product",
+ *      SIAM J. Sci. Comput. 26(6), 2005</a>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-16
+ */
+
+public final class NeumaierLanesAccumulator
+
+implements SegmentAccumulator<NeumaierLanesAccumulator> {
+
+  private static final int LANES = 4;
+
+  private final double[] s = new double[LANES];
+  private final double[] c = new double[LANES];
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final boolean isExact () { return false; }
+
+  @Override
+  public final boolean noOverflow () { return false; }
+
+  @Override
+  public final Object value () {
+    return Double.valueOf(doubleValue()); }
+
+  @Override
+  public final double doubleValue () {
+    double ss = 0.0;
+    double cc = 0.0;
+    for (int l=0;l<LANES;l++) {
+      final double z = s[l];
+      final double t = ss + z;
+      final double zz = t - ss;
+      cc += ((ss - (t - zz)) + (z - zz)) + c[l];
+      ss = t; }
+    return ss + cc; }
+
+  @Override
+  public final NeumaierLanesAccumulator clear () {
+    for (int l=0;l<LANES;l++) { s[l] = 0.0; c[l] = 0.0; }
+    return this; }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final NeumaierLanesAccumulator add (final double z) {
+    assert Double.isFinite(z);
+    final double t = s[0] + z;
+    final double zz = t - s[0];
+    c[0] += (s[0] - (t - zz)) + (z - zz);
+    s[0] = t;
+    return this; }
+
+  @Override
+  public final NeumaierLanesAccumulator add2 (final double z) {
+    assert Double.isFinite(z);
+    return addProduct(z,z); }
+
+  @Override
+  public final NeumaierLanesAccumulator addProduct (final double z0,
+                                                    final double z1) {
+    assert Double.isFinite(z0);
+    assert Double.isFinite(z1);
+    final double p = z0*z1;
+    final double e = Math.fma(z0,z1,-p);
+    final double t = s[0] + p;
+    final double pp = t - s[0];
+    c[0] += ((s[0] - (t - pp)) + (p - pp)) + e;
+    s[0] = t;
+    return this; }
+
+  //--------------------------------------------------------------
+  // bulk operations, lanes in locals
+  //--------------------------------------------------------------
+
+  @Override
+  public final NeumaierLanesAccumulator addAll (final double[] z) {
+    double s0 = s[0], s1 = s[1], s2 = s[2], s3 = s[3];
+    double c0 = c[0], c1 = c[1], c2 = c[2], c3 = c[3];
+    final int n = z.length;
+    final int m = n - (n % LANES);
+    for (int i=0;i<m;i+=LANES) {
+      final double z0 = z[i];
+      final double z1 = z[i+1];
+      final double z2 = z[i+2];
+      final double z3 = z[i+3];
+      final double t0 = s0 + z0;
+      final double t1 = s1 + z1;
+      final double t2 = s2 + z2;
+      final double t3 = s3 + z3;
+      final double zz0 = t0 - s0;
+      final double zz1 = t1 - s1;
+      final double zz2 = t2 - s2;
+      final double zz3 = t3 - s3;
+      c0 += (s0 - (t0 - zz0)) + (z0 - zz0);
+      c1 += (s1 - (t1 - zz1)) + (z1 - zz1);
+      c2 += (s2 - (t2 - zz2)) + (z2 - zz2);
+      c3 += (s3 - (t3 - zz3)) + (z3 - zz3);
+      s0 = t0; s1 = t1; s2 = t2; s3 = t3; }
+    s[0] = s0; s[1] = s1; s[2] = s2; s[3] = s3;
+    c[0] = c0; c[1] = c1; c[2] = c2; c[3] = c3;
+    for (int i=m;i<n;i++) { add(z[i]); }
+    return this; }
+
+  @Override
+  public final NeumaierLanesAccumulator add2All (final double[] z) {
+    return addProducts(z,z); }
+
+  @Override
+  public final NeumaierLanesAccumulator addProducts (final double[] x,
+                                                     final double[] y) {
+    final int n = x.length;
+    assert n == y.length;
+    double s0 = s[0], s1 = s[1], s2 = s[2], s3 = s[3];
+    double c0 = c[0], c1 = c[1], c2 = c[2], c3 = c[3];
+    final int m = n - (n % LANES);
+    for (int i=0;i<m;i+=LANES) {
+      final double p0 = x[i]*y[i];
+      final double p1 = x[i+1]*y[i+1];
+      final double p2 = x[i+2]*y[i+2];
+      final double p3 = x[i+3]*y[i+3];
+      final double e0 = Math.fma(x[i],y[i],-p0);
+      final double e1 = Math.fma(x[i+1],y[i+1],-p1);
+      final double e2 = Math.fma(x[i+2],y[i+2],-p2);
+      final double e3 = Math.fma(x[i+3],y[i+3],-p3);
+      final double t0 = s0 + p0;
+      final double t1 = s1 + p1;
+      final double t2 = s2 + p2;
+      final double t3 = s3 + p3;
+      final double pp0 = t0 - s0;
+      final double pp1 = t1 - s1;
+      final double pp2 = t2 - s2;
+      final double pp3 = t3 - s3;
+      c0 += ((s0 - (t0 - pp0)) + (p0 - pp0)) + e0;
+      c1 += ((s1 - (t1 - pp1)) + (p1 - pp1)) + e1;
+      c2 += ((s2 - (t2 - pp2)) + (p2 - pp2)) + e2;
+      c3 += ((s3 - (t3 - pp3)) + (p3 - pp3)) + e3;
+      s0 = t0; s1 = t1; s2 = t2; s3 = t3; }
+    s[0] = s0; s[1] = s1; s[2] = s2; s[3] = s3;
+    c[0] = c0; c[1] = c1; c[2] = c2; c[3] = c3;
+    for (int i=m;i<n;i++) { addProduct(x[i],y[i]); }
+    return this; }
+
+  //--------------------------------------------------------------
+  // MemorySegment input
+  //--------------------------------------------------------------
+
+  @Override
+  public final NeumaierLanesAccumulator addAll (final MemorySegment z) {
+    double s0 = s[0], s1 = s[1], s2 = s[2], s3 = s[3];
+    double c0 = c[0], c1 = c[1], c2 = c[2], c3 = c[3];
+    final long n = z.byteSize() / Double.BYTES;
+    final long m = n - (n % LANES);
+    for (long i=0;i<m;i+=LANES) {
+      final double z0 = z.getAtIndex(ELEMENT,i);
+      final double z1 = z.getAtIndex(ELEMENT,i+1);
+      final double z2 = z.getAtIndex(ELEMENT,i+2);
+      final double z3 = z.getAtIndex(ELEMENT,i+3);
+      final double t0 = s0 + z0;
+      final double t1 = s1 + z1;
+      final double t2 = s2 + z2;
+      final double t3 = s3 + z3;
+      final double zz0 = t0 - s0;
+      final double zz1 = t1 - s1;
+      final double zz2 = t2 - s2;
+      final double zz3 = t3 - s3;
+      c0 += (s0 - (t0 - zz0)) + (z0 - zz0);
+      c1 += (s1 - (t1 - zz1)) + (z1 - zz1);
+      c2 += (s2 - (t2 - zz2)) + (z2 - zz2);
+      c3 += (s3 - (t3 - zz3)) + (z3 - zz3);
+      s0 = t0; s1 = t1; s2 = t2; s3 = t3; }
+    s[0] = s0; s[1] = s1; s[2] = s2; s[3] = s3;
+    c[0] = c0; c[1] = c1; c[2] = c2; c[3] = c3;
+    for (long i=m;i<n;i++) { add(z.getAtIndex(ELEMENT,i)); }
+    return this; }
+
+  //--------------------------------------------------------------
+  // construction
+  //--------------------------------------------------------------
+
+  private NeumaierLanesAccumulator () { }
+
+  public static final NeumaierLanesAccumulator make () {
+    return new NeumaierLanesAccumulator(); }
+
+  //--------------------------------------------------------------
+} // end of class
+//--------------------------------------------------------------
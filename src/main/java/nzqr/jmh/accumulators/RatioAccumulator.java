@@ -6,7 +6,6 @@ import java.math.BigInteger;
 
 import clojure.lang.Numbers;
 import clojure.lang.Ratio;
-import nzqr.java.accumulators.Accumulator;
 
 /** Naive sum of <code>double</code> values with Ratio
  * accumulator (for testing).
@@ -16,7 +15,7 @@ import nzqr.java.accumulators.Accumulator;
  */
 public final class RatioAccumulator
 
-implements Accumulator<RatioAccumulator> {
+implements SegmentAccumulator<RatioAccumulator> {
 
   private static final Ratio add (final Ratio q0,
                                   final Ratio q1) {
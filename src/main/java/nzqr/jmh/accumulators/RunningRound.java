@@ -0,0 +1,108 @@
+package nzqr.jmh.accumulators;
+
+import nzqr.java.accumulators.Accumulator;
+
+//----------------------------------------------------------------
+/** Correctly rounded prefix sums of an exact accumulator,
+ * without rounding its whole state after every add.
+ * <p>
+ * Every double added to the accumulator is also added to a
+ * running double-double estimate <code>hi+lo</code>, with a
+ * bound <code>err</code> on <code>|sum - (hi+lo)|</code>.
+ * While <code>[hi+lo-err, hi+lo+err]</code> is strictly inside
+ * the interval that rounds to <code>hi</code>, <code>hi</code>
+ * is the correctly rounded sum. Otherwise, which, for random
+ * data, is rare, the accumulator rounds its exact state,
+ * and the estimate is reset to that, plus the rounded exact
+ * residual.
+ * <p>
+ * <em>NOT</em> thread safe!
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-16
+ */
+
+final class RunningRound {
+
+  //--------------------------------------------------------------
+
+  private final Accumulator<?> acc;
+
+  private double hi;
+  private double lo;
+  /** Bound on the error of <code>hi+lo</code>;
+   * <code>NaN</code> if the sum overflowed.
+   */
+  private double err;
+
+  //--------------------------------------------------------------
+  /** Reset the estimate from the exact state. */
+
+  private final void sync () {
+    final double r = acc.doubleValue();
+    hi = r;
+    lo = 0.0;
+    // every input is a multiple of 2^-1074, so is the sum,
+    // so it is exactly zero if it rounds to zero
+    if (0.0 == r) { err = 0.0; return; }
+    if (! Double.isFinite(r)) { err = Double.NaN; return; }
+    acc.add(-r);
+    lo = acc.doubleValue();
+    acc.add(r);
+    err = 0.5 * Math.ulp(lo); }
+
+  /** Add <code>z</code> to the estimate only. */
+
+  private final void estimate (final double z) {
+    // twoSum(hi,z), exact
+    final double s = hi + z;
+    final double z1 = s - hi;
+    final double e = (hi - (s - z1)) + (z - z1);
+    // the only rounding error
+    final double t = lo + e;
+    // twoSum(s,t), exact
+    final double h = s + t;
+    final double t1 = h - s;
+    lo = (s - (h - t1)) + (t - t1);
+    hi = h;
+    if (0.0 != t) { err = Math.nextUp(err + 0x1p-53*Math.abs(t)); } }
+
+  //--------------------------------------------------------------
+
+  final void add (final double z) {
+    acc.add(z);
+    estimate(z); }
+
+  /** Adds the 2 doubles of the exact product,
+   * as the ZhuHayes accumulators do.
+   */
+
+  final void addProduct (final double z0,
+                         final double z1) {
+    final double p = z0*z1;
+    final double e = Math.fma(z0,z1,-p);
+    add(p);
+    add(e); }
+
+  /** The correctly rounded sum. */
+
+  final double round () {
+    if ((0.0 == lo) && (0.0 == err)) { return hi; }
+    // half the smaller of the gaps to the neighbors of hi
+    final double half =
+      0.5 * Math.ulp(Math.nextDown(Math.abs(hi)));
+    // rounding is monotone, so this can't be wrongly true
+    if (! (Math.abs(lo) + err < half)) { sync(); }
+    return hi; }
+
+  //--------------------------------------------------------------
+  // construction
+  //--------------------------------------------------------------
+
+  RunningRound (final Accumulator<?> acc) {
+    this.acc = acc;
+    sync(); }
+
+  //--------------------------------------------------------------
+} // end of class
+//----------------------------------------------------------------
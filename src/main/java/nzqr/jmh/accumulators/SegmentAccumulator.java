@@ -0,0 +1,92 @@
+package nzqr.jmh.accumulators;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+import nzqr.java.accumulators.Accumulator;
+
+//----------------------------------------------------------------
+/** Accumulators that read <code>double</code> values straight
+ * from a {@link MemorySegment}, for example a memory-mapped
+ * column file, without first copying them into a
+ * <code>double[]</code>.
+ * <p>
+ * Values are in native byte order.
+ * The contiguous methods add every <code>double</code> in the
+ * segment. The strided methods add <code>n</code> values, the
+ * <code>k</code>th at byte offset <code>offset+k*stride</code>,
+ * which needn't be aligned.
+ * <p>
+ * The defaults just loop over the single element methods.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-16
+ */
+
+@SuppressWarnings("unchecked")
+public interface SegmentAccumulator<T extends SegmentAccumulator<T>>
+extends Accumulator<T> {
+
+  //--------------------------------------------------------------
+
+  /** Element layout for the strided methods. */
+
+  ValueLayout.OfDouble ELEMENT =
+    ValueLayout.JAVA_DOUBLE_UNALIGNED;
+
+  /** Number of <code>double</code>s in <code>z</code>. */
+
+  private static long length (final MemorySegment z) {
+    assert 0L == (z.byteSize() % Double.BYTES);
+    return z.byteSize() / Double.BYTES; }
+
+  //--------------------------------------------------------------
+
+  default T addAll (final MemorySegment z) {
+    return addAll(z,0L,Double.BYTES,length(z)); }
+
+  default T addAll (final MemorySegment z,
+                    final long offset,
+                    final long stride,
+                    final long n) {
+    for (long k=0;k<n;k++) { add(z.get(ELEMENT,offset+k*stride)); }
+    return (T) this; }
+
+  //--------------------------------------------------------------
+
+  default T add2All (final MemorySegment z) {
+    return add2All(z,0L,Double.BYTES,length(z)); }
+
+  default T add2All (final MemorySegment z,
+                     final long offset,
+                     final long stride,
+                     final long n) {
+    for (long k=0;k<n;k++) { add2(z.get(ELEMENT,offset+k*stride)); }
+    return (T) this; }
+
+  //--------------------------------------------------------------
+
+  default T addProducts (final MemorySegment z0,
+                         final MemorySegment z1) {
+    assert z0.byteSize() == z1.byteSize();
+    return addProducts(
+      z0,0L,Double.BYTES,
+      z1,0L,Double.BYTES,
+      length(z0)); }
+
+  default T addProducts (final MemorySegment z0,
+                         final long offset0,
+                         final long stride0,
+                         final MemorySegment z1,
+                         final long offset1,
+                         final long stride1,
+                         final long n) {
+    for (long k=0;k<n;k++) {
+      addProduct(
+        z0.get(ELEMENT,offset0+k*stride0),
+        z1.get(ELEMENT,offset1+k*stride1)); }
+    return (T) this; }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
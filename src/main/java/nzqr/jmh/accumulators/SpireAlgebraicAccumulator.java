@@ -12,7 +12,8 @@ import spire.math.Algebraic;
  */
 public final class SpireAlgebraicAccumulator
 
-extends ExactAccumulator<SpireAlgebraicAccumulator> {
+extends ExactAccumulator<SpireAlgebraicAccumulator>
+implements SegmentAccumulator<SpireAlgebraicAccumulator> {
 
   private Algebraic _sum;
 
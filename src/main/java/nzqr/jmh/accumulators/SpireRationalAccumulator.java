@@ -12,7 +12,8 @@ import spire.math.Rational;
  */
 public final class SpireRationalAccumulator
 
-extends ExactAccumulator<SpireRationalAccumulator> {
+extends ExactAccumulator<SpireRationalAccumulator>
+implements SegmentAccumulator<SpireRationalAccumulator> {
 
   private Rational _sum;
 
@@ -12,7 +12,8 @@ import spire.math.Real;
  */
 public final class SpireRealAccumulator
 
-extends ExactAccumulator<SpireRealAccumulator> {
+extends ExactAccumulator<SpireRealAccumulator>
+implements SegmentAccumulator<SpireRealAccumulator> {
 
   private Real _sum;
 
@@ -0,0 +1,175 @@
+package nzqr.jmh.accumulators;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import nzqr.java.accumulators.Accumulator;
+
+//----------------------------------------------------------------
+/** Thread safe exact summation, striped like
+ * {@link java.util.concurrent.atomic.LongAdder}.
+ * <p>
+ * Each cell holds a {@link ZhuHayesBranch} and a lock.
+ * A writer hashes its thread id to a home cell; if that
+ * cell's lock is taken, it tries the following cells, and only
+ * blocks when all of them are busy.
+ * So uncontended threads keep updating their own exponent bins,
+ * and threads never wait on each other unless there are more
+ * threads than cells.
+ * Cells are created on first use.
+ * <p>
+ * {@link #doubleValue()} merges the cells, one at a time,
+ * exactly, into a scratch accumulator. Like
+ * {@link java.util.concurrent.atomic.LongAdder#sum()},
+ * it is not an atomic snapshot: values added during the read
+ * may or may not be included. Likewise {@link #clear()}.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-16
+ */
+
+public final class StripedAccumulator
+implements Accumulator<StripedAccumulator> {
+
+  //--------------------------------------------------------------
+
+  private static final class Cell {
+    final ReentrantLock lock = new ReentrantLock();
+    final ZhuHayesBranch bins = ZhuHayesBranch.make(); }
+
+  /** Power of 2, at least the number of processors. */
+  private static final int NCELLS =
+    Integer.highestOneBit(
+      (2 * Runtime.getRuntime().availableProcessors()) - 1);
+
+  private final AtomicReferenceArray<Cell> cells;
+
+  /** Guarded by its own monitor. */
+  private final ZhuHayesBranch sum;
+
+  //--------------------------------------------------------------
+
+  private final Cell cell (final int i) {
+    final Cell c = cells.get(i);
+    if (null != c) { return c; }
+    final Cell d = new Cell();
+    if (cells.compareAndSet(i,null,d)) { return d; }
+    return cells.get(i); }
+
+  /** Spread thread ids, which are often sequential. */
+
+  private static final int home () {
+    final long id = Thread.currentThread().threadId();
+    return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32); }
+
+  /** Returns a cell whose lock the current thread holds. */
+
+  private final Cell lock () {
+    final int h = home();
+    for (int k=0;k<NCELLS;k++) {
+      final Cell c = cell((h + k) & (NCELLS - 1));
+      if (c.lock.tryLock()) { return c; } }
+    final Cell c = cell(h & (NCELLS - 1));
+    c.lock.lock();
+    return c; }
+
+  //--------------------------------------------------------------
+  // Accumulator interface
+  //--------------------------------------------------------------
+
+  @Override
+  public final boolean isExact () { return true; }
+
+  @Override
+  public final boolean noOverflow () { return false; }
+
+  @Override
+  public final StripedAccumulator clear () {
+    for (int i=0;i<NCELLS;i++) {
+      final Cell c = cells.get(i);
+      if (null != c) {
+        c.lock.lock();
+        try { c.bins.clear(); }
+        finally { c.lock.unlock(); } } }
+    return this; }
+
+  @Override
+  public final Object value () {
+    return Double.valueOf(doubleValue()); }
+
+  @Override
+  public final double doubleValue () {
+    synchronized (sum) {
+      sum.clear();
+      for (int i=0;i<NCELLS;i++) {
+        final Cell c = cells.get(i);
+        if (null != c) {
+          c.lock.lock();
+          try { sum.merge(c.bins); }
+          finally { c.lock.unlock(); } } }
+      return sum.doubleValue(); } }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final StripedAccumulator add (final double z) {
+    final Cell c = lock();
+    try { c.bins.add(z); }
+    finally { c.lock.unlock(); }
+    return this; }
+
+  @Override
+  public final StripedAccumulator add2 (final double z) {
+    final Cell c = lock();
+    try { c.bins.add2(z); }
+    finally { c.lock.unlock(); }
+    return this; }
+
+  @Override
+  public final StripedAccumulator addProduct (final double z0,
+                                              final double z1) {
+    final Cell c = lock();
+    try { c.bins.addProduct(z0,z1); }
+    finally { c.lock.unlock(); }
+    return this; }
+
+  //--------------------------------------------------------------
+  // bulk operations hold one cell for the whole array
+  //--------------------------------------------------------------
+
+  @Override
+  public final StripedAccumulator addAll (final double[] z) {
+    final Cell c = lock();
+    try { c.bins.addAll(z); }
+    finally { c.lock.unlock(); }
+    return this; }
+
+  @Override
+  public final StripedAccumulator add2All (final double[] z) {
+    final Cell c = lock();
+    try { c.bins.add2All(z); }
+    finally { c.lock.unlock(); }
+    return this; }
+
+  @Override
+  public final StripedAccumulator addProducts (final double[] z0,
+                                               final double[] z1) {
+    final Cell c = lock();
+    try { c.bins.addProducts(z0,z1); }
+    finally { c.lock.unlock(); }
+    return this; }
+
+  //--------------------------------------------------------------
+  // construction
+  //--------------------------------------------------------------
+
+  private StripedAccumulator () {
+    cells = new AtomicReferenceArray<>(NCELLS);
+    sum = ZhuHayesBranch.make(); }
+
+  public static final StripedAccumulator make () {
+    return new StripedAccumulator(); }
+
+  //--------------------------------------------------------------
+} // end of class
+//----------------------------------------------------------------
@@ -0,0 +1,348 @@
+package nzqr.jmh.accumulators;
+
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+
+//----------------------------------------------------------------
+/** Exact summation with a fixed point superaccumulator of
+ * <code>long</code> chunks, after Neal's 'small' xsum
+ * accumulator.
+ * <p>
+ * Chunk <code>i</code> has weight
+ * <code>2<sup>32*i - 1075</sup></code>, so 67 chunks cover
+ * every finite double, with room for carries and the sign.
+ * The significand of each input, shifted by the low 5 bits of
+ * its biased exponent, is split into a low 32 bit part and a
+ * high part of at most 52 bits, which are added to
+ * (or subtracted from) two adjacent chunks.
+ * No branches on the data, and no carries:
+ * carries are propagated only every 2047 adds, the most a
+ * 64 bit chunk can take without overflowing, and before
+ * reading the sum.
+ * <p>
+ * Products are split with <code>fma</code> into 2 doubles,
+ * as in the ZhuHayes accumulators.
+ * <p>
+ * Reference:
+ * <p>
+ * <a href="https://arxiv.org/abs/1505.05571">
+ * Radford M. Neal,
+ * "Fast exact summation using small and large superaccumulators",
+ * arXiv:1505.05571, 2015.</a>
+ * <p>
+ * <em>NOT</em> thread safe!
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-16
+ */
+
+public final class XSumAccumulator
+implements IncrementalPartials<XSumAccumulator>,
+           MergeableAccumulator<XSumAccumulator>,
+           SegmentAccumulator<XSumAccumulator> {
+
+  //--------------------------------------------------------------
+
+  private static final int SIGNIFICAND_BITS = Double.PRECISION - 1;
+
+  private static final long SIGNIFICAND_MASK =
+    (1L << SIGNIFICAND_BITS) - 1L;
+
+  private static final long IMPLICIT = 1L << SIGNIFICAND_BITS;
+
+  private static final int EXPONENT_MASK = 0x7FF;
+
+  private static final int LOW_EXPONENT_BITS = 5;
+
+  private static final int LOW_EXPONENT_MASK =
+    (1 << LOW_EXPONENT_BITS) - 1;
+
+  private static final int CHUNK_BITS = 32;
+
+  private static final long CHUNK_MASK = 0xFFFFFFFFL;
+
+  /** Weight of the lowest bit of chunk 0 is
+   * <code>2<sup>-BIAS</sup></code>.
+   */
+  private static final int BIAS =
+    SIGNIFICAND_BITS - Double.MIN_EXPONENT + 1;
+
+  /** Chunks for every biased exponent, plus the high part of
+   * the largest, plus one for carries and the sign.
+   */
+  private static final int NCHUNKS =
+    ((EXPONENT_MASK + 1) >> LOW_EXPONENT_BITS) + 3;
+
+  /** Adds between carry propagations: each add changes a chunk
+   * by less than <code>2<sup>52</sup></code>, and a propagated
+   * chunk is less than <code>2<sup>32</sup></code>.
+   */
+  private static final int CARRY_TERMS =
+    (1 << (Long.SIZE - 1 - SIGNIFICAND_BITS)) - 1;
+
+  //--------------------------------------------------------------
+
+  private final long[] chunks;
+
+  /** Scratch for the magnitude of a negative sum. */
+  private final long[] magnitude;
+
+  /** Adds left before carries must be propagated. */
+  private int room;
+
+  //--------------------------------------------------------------
+  /** Leave every chunk but the last in
+   * <code>[0,2<sup>32</sup>)</code>; the last has the sign.
+   */
+
+  private static final void propagate (final long[] c) {
+    long carry = 0L;
+    for (int i=0;i<NCHUNKS-1;i++) {
+      final long x = c[i] + carry;
+      c[i] = x & CHUNK_MASK;
+      carry = x >> CHUNK_BITS; }
+    c[NCHUNKS-1] += carry; }
+
+  private final void propagate () {
+    propagate(chunks);
+    room = CARRY_TERMS; }
+
+  /** Add <code>z</code> to the chunks, without counting. */
+
+  private static final void add (final long[] c,
+                                 final double z) {
+    final long bits = Double.doubleToRawLongBits(z);
+    final int be = (int) (bits >>> SIGNIFICAND_BITS) & EXPONENT_MASK;
+    final long m = (bits & SIGNIFICAND_MASK)
+      | ((0 == be) ? 0L : IMPLICIT);
+    // subnormals have the same weight as biased exponent 1
+    final int e = Math.max(be,1);
+    final int s = e & LOW_EXPONENT_MASK;
+    final int i = e >> LOW_EXPONENT_BITS;
+    // negate both parts if sign bit set, without branching
+    final long sign = bits >> 63;
+    final long lo = (m << s) & CHUNK_MASK;
+    final long hi = m >>> (CHUNK_BITS - s);
+    c[i] += (lo ^ sign) - sign;
+    c[i+1] += (hi ^ sign) - sign; }
+
+  //--------------------------------------------------------------
+  // Accumulator interface
+  //--------------------------------------------------------------
+
+  @Override
+  public final boolean isExact () { return true; }
+
+  @Override
+  public final boolean noOverflow () { return false; }
+
+  @Override
+  public final XSumAccumulator clear () {
+    Arrays.fill(chunks,0L);
+    room = CARRY_TERMS;
+    return this; }
+
+  @Override
+  public final Object value () {
+    return Double.valueOf(doubleValue()); }
+
+  /** Round half even. */
+
+  @Override
+  public final double doubleValue () {
+    propagate();
+    final boolean negative = 0L > chunks[NCHUNKS-1];
+    final long[] c;
+    if (negative) {
+      for (int i=0;i<NCHUNKS;i++) { magnitude[i] = -chunks[i]; }
+      propagate(magnitude);
+      c = magnitude; }
+    else { c = chunks; }
+    // past MAX_VALUE
+    if (0L != (c[NCHUNKS-1] & ~CHUNK_MASK)) {
+      return negative
+        ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY; }
+    int h = NCHUNKS-1;
+    while ((0 <= h) && (0L == c[h])) { h--; }
+    if (0 > h) { return 0.0; }
+    final int nb = Long.SIZE - Long.numberOfLeadingZeros(c[h]);
+    final double d;
+    if (CHUNK_BITS*h + nb <= Double.PRECISION) {
+      // less than MIN_NORMAL, so exact
+      final long m = (0 == h) ? c[0] : ((c[1] << CHUNK_BITS) | c[0]);
+      d = Math.scalb((double) m,-BIAS); }
+    else {
+      // top 64 bits, and whether any bits below them are set
+      final long c1 = (1 <= h) ? c[h-1] : 0L;
+      final long c2 = (2 <= h) ? c[h-2] : 0L;
+      final long top =
+        (c[h] << (Long.SIZE - nb))
+        | (c1 << (CHUNK_BITS - nb))
+        | (c2 >>> nb);
+      boolean sticky = 0L != (c2 & ((1L << nb) - 1L));
+      for (int i=h-3;(! sticky) && (0 <= i);i--) {
+        sticky = 0L != c[i]; }
+      // keep 53 bits
+      final int shift = Long.SIZE - Double.PRECISION;
+      long r = top >>> shift;
+      final boolean half = 0L != (top & (1L << (shift-1)));
+      sticky = sticky || (0L != (top & ((1L << (shift-1)) - 1L)));
+      if (half && (sticky || (0L != (r & 1L)))) { r++; }
+      // r <= 2^53, so exact; scalb overflows to infinity
+      d = Math.scalb(
+        (double) r,
+        CHUNK_BITS*(h-2) + nb + shift - BIAS); }
+    return negative ? -d : d; }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final XSumAccumulator add (final double z) {
+    assert Double.isFinite(z);
+    add(chunks,z);
+    if (0 >= --room) { propagate(); }
+    return this; }
+
+  @Override
+  public final XSumAccumulator add2 (final double z) {
+    assert Double.isFinite(z);
+    final double z2 = z*z;
+    final double e = Math.fma(z,z,-z2);
+    add(z2);
+    add(e);
+    return this; }
+
+  @Override
+  public final XSumAccumulator addProduct (final double z0,
+                                           final double z1) {
+    assert Double.isFinite(z0);
+    assert Double.isFinite(z1);
+    final double z01 = z0*z1;
+    final double e = Math.fma(z0,z1,-z01);
+    add(z01);
+    add(e);
+    return this; }
+
+  //--------------------------------------------------------------
+  // bulk operations, counting once per run of adds
+  //--------------------------------------------------------------
+
+  @Override
+  public final XSumAccumulator addAll (final double[] z) {
+    return addAll(z,0,z.length); }
+
+  @Override
+  public final XSumAccumulator addAll (final double[] z,
+                                       final int start,
+                                       final int end) {
+    final long[] c = chunks;
+    int k = start;
+    while (k < end) {
+      final int n = Math.min(end-k,room);
+      for (int j=k;j<k+n;j++) { add(c,z[j]); }
+      k += n;
+      room -= n;
+      if (0 >= room) { propagate(); } }
+    return this; }
+
+  @Override
+  public final XSumAccumulator add2All (final double[] z) {
+    return add2All(z,0,z.length); }
+
+  @Override
+  public final XSumAccumulator add2All (final double[] z,
+                                        final int start,
+                                        final int end) {
+    final long[] c = chunks;
+    int k = start;
+    while (k < end) {
+      final int n = Math.min(end-k,room/2);
+      for (int j=k;j<k+n;j++) {
+        final double zj = z[j];
+        final double z2 = zj*zj;
+        add(c,z2);
+        add(c,Math.fma(zj,zj,-z2)); }
+      k += n;
+      room -= 2*n;
+      if (1 >= room) { propagate(); } }
+    return this; }
+
+  @Override
+  public final XSumAccumulator addProducts (final double[] z0,
+                                            final double[] z1) {
+    assert z0.length == z1.length;
+    return addProducts(z0,z1,0,z0.length); }
+
+  @Override
+  public final XSumAccumulator addProducts (final double[] z0,
+                                            final double[] z1,
+                                            final int start,
+                                            final int end) {
+    final long[] c = chunks;
+    int k = start;
+    while (k < end) {
+      final int n = Math.min(end-k,room/2);
+      for (int j=k;j<k+n;j++) {
+        final double x0 = z0[j];
+        final double x1 = z1[j];
+        final double x01 = x0*x1;
+        add(c,x01);
+        add(c,Math.fma(x0,x1,-x01)); }
+      k += n;
+      room -= 2*n;
+      if (1 >= room) { propagate(); } }
+    return this; }
+
+  //--------------------------------------------------------------
+  // MemorySegment input
+  //--------------------------------------------------------------
+
+  @Override
+  public final XSumAccumulator addAll (final MemorySegment z) {
+    final long[] c = chunks;
+    final long end = z.byteSize() / Double.BYTES;
+    long k = 0;
+    while (k < end) {
+      final long n = Math.min(end-k,room);
+      for (long j=k;j<k+n;j++) { add(c,z.getAtIndex(ELEMENT,j)); }
+      k += n;
+      room -= (int) n;
+      if (0 >= room) { propagate(); } }
+    return this; }
+
+  //--------------------------------------------------------------
+  // merging
+  //--------------------------------------------------------------
+
+  /** Propagated chunks are less than <code>2<sup>32</sup></code>,
+   * and unpropagated ones less than
+   * <code>2<sup>63</sup> - 2<sup>52</sup></code>,
+   * so their sum can't overflow.
+   */
+
+  @Override
+  public final XSumAccumulator merge (final XSumAccumulator that) {
+    assert this != that;
+    propagate();
+    for (int i=0;i<NCHUNKS;i++) { chunks[i] += that.chunks[i]; }
+    propagate();
+    return this; }
+
+  @Override
+  public final XSumAccumulator empty () { return make(); }
+
+  //--------------------------------------------------------------
+  // construction
+  //--------------------------------------------------------------
+
+  private XSumAccumulator () {
+    chunks = new long[NCHUNKS];
+    magnitude = new long[NCHUNKS];
+    room = CARRY_TERMS; }
+
+  public static final XSumAccumulator make () {
+    return new XSumAccumulator(); }
+
+  //--------------------------------------------------------------
+} // end of class
+//----------------------------------------------------------------
@@ -2,9 +2,9 @@ package nzqr.jmh.accumulators;
 
 import static nzqr.java.numbers.Doubles.biasedExponent;
 
+import java.lang.foreign.MemorySegment;
 import java.util.Arrays;
 
-import nzqr.java.accumulators.Accumulator;
 import nzqr.java.numbers.Doubles;
 
 //----------------------------------------------------------------
@@ -37,14 +37,32 @@ import nzqr.java.numbers.Doubles;
  * "(More or less) accurate floating point algorithms"</a>
  * (Apache 2.0 or MIT license, visited 2017-05-01)
  * <p>
+ * {@link #addAll(double[])}, {@link #add2All(double[])} and
+ * {@link #addProducts(double[],double[])} use Vector API kernels
+ * that bin each SIMD lane separately; the lane bins are folded
+ * into the scalar bins in <code>compact()</code>.
+ * Without 512 bit vectors, where the kernels' gathers and
+ * scatters would box, they use the scalar loop instead.
+ * <p>
+ * A bitmap of touched exponents lets <code>clear()</code>,
+ * <code>compact()</code> and {@link #doubleValue()} visit only
+ * live bins, and the lane kernels track the exponent range
+ * they touch, so short inputs cost in proportion to their
+ * length and exponent spread, not to 2048 bins.
+ * <p>
+ * {@link #merge(ZhuHayesBranch)} adds the bins of another
+ * accumulator, for {@link ForkJoinAccumulator}.
+ * <p>
  * <em>NOT</em> thread safe!
  * <p>
  * @author palisades dot lakes at gmail dot com
- * @version 2019-04-14
+ * @version 2026-10-17
  */
 
 public final class ZhuHayesBranch
-implements Accumulator<ZhuHayesBranch> {
+implements IncrementalPartials<ZhuHayesBranch>,
+           MergeableAccumulator<ZhuHayesBranch>,
+           SegmentAccumulator<ZhuHayesBranch> {
 
   //--------------------------------------------------------------
 
@@ -207,13 +225,33 @@ implements Accumulator<ZhuHayesBranch> {
   private double[] b1;
   private double[] b2;
 
+  // bit j set when bin j of a1/a2 (b1/b2) may be non-zero,
+  // so clear, compact and doubleValue only visit live bins.
+  private static final int NWORDS = NACCUMULATORS / Long.SIZE;
+  private long[] aLive;
+  private long[] bLive;
+
+  // per-lane bins for the vector kernels
+  private int vi;
+  private final double[] v1;
+  private final double[] v2;
+  private final int[] vRange;
+  private final int[] idx;
+  // squares or products and their errors, for the pair kernels
+  private final double[] w;
+  // live bins and their count, for iFastSum in doubleValue
+  private final double[] xs;
+  private final int[] ns;
+
   //--------------------------------------------------------------
 
   private static final void twoInc (final double[] s,
                                     final double[] e,
+                                    final long[] live,
                                     final double x) {
     // might get +/- Infinity due to overflow
     final int j = biasedExponent(x);
+    live[j >>> 6] |= (1L << j);
     final double sj = s[j];
     s[j] = sj + x;
     if (biasedExponent(sj) > biasedExponent(x)) {
@@ -223,9 +261,19 @@ implements Accumulator<ZhuHayesBranch> {
 
   //--------------------------------------------------------------
 
-  private final void zeroB () {
-    Arrays.fill(b1,0.0);
-    Arrays.fill(b2,0.0); }
+  private static final void zero (final double[] s,
+                                  final double[] e,
+                                  final long[] live) {
+    for (int w=0;w<NWORDS;w++) {
+      long bits = live[w];
+      while (0L != bits) {
+        final int j = (w << 6) + Long.numberOfTrailingZeros(bits);
+        bits &= bits - 1;
+        s[j] = 0.0;
+        e[j] = 0.0; }
+      live[w] = 0L; } }
+
+  private final void zeroB () { zero(b1,b2,bLive); }
 
   //  private final void zeroB () {
   //    b1[0] = 0.0;
@@ -243,14 +291,22 @@ implements Accumulator<ZhuHayesBranch> {
     zeroB();
 
     // Step 4(6)(b)
-    for (final double x : a1) {
-      // Step 4(6)(b)(i)
-      // Step 4(6)(b)(ii)
-      twoInc(b1,b2,x); }
-    for (final double x : a2) {
-      // Step 4(6)(b)(i)
-      // Step 4(6)(b)(ii)
-      twoInc(b1,b2,x); }
+    for (int w=0;w<NWORDS;w++) {
+      long bits = aLive[w];
+      while (0L != bits) {
+        final int j = (w << 6) + Long.numberOfTrailingZeros(bits);
+        bits &= bits - 1;
+        // Step 4(6)(b)(i)
+        // Step 4(6)(b)(ii)
+        twoInc(b1,b2,bLive,a1[j]);
+        twoInc(b1,b2,bLive,a2[j]); } }
+    if (0 < vi) {
+      for (int l=0;l<ZhuHayesLanes.LENGTH;l+=ZhuHayesLanes.NBINS) {
+        for (int j=l+vRange[0];j<=l+vRange[1];j++) {
+          twoInc(b1,b2,bLive,v1[j]);
+          twoInc(b1,b2,bLive,v2[j]); } }
+      ZhuHayesLanes.clear(v1,v2,vRange);
+      vi = 0; }
 
     // Step 4(6)(c)
     // swap
@@ -260,6 +316,9 @@ implements Accumulator<ZhuHayesBranch> {
     a2 = b2;
     b1 = tmp1;
     b2 = tmp2;
+    final long[] tmpLive = aLive;
+    aLive = bLive;
+    bLive = tmpLive;
 
     // Step 4(6)(d)
     return 2 * NACCUMULATORS; }
@@ -280,8 +339,10 @@ implements Accumulator<ZhuHayesBranch> {
   @Override
   public final ZhuHayesBranch clear () {
     i = 0;
-    Arrays.fill(a1,0.0);
-    Arrays.fill(a2,0.0);
+    zero(a1,a2,aLive);
+    if (0 < vi) {
+      ZhuHayesLanes.clear(v1,v2,vRange);
+      vi = 0; }
     return this; }
 
   //--------------------------------------------------------------
@@ -292,16 +353,29 @@ implements Accumulator<ZhuHayesBranch> {
 
   @Override
   public final double doubleValue () {
+    if (0 < vi) { i = compact(); }
     // Step 5
-    final double[] x = new double[a1.length+a2.length];
-    System.arraycopy(a1,0,x,0,a1.length);
-    System.arraycopy(a2,0,x,a1.length,a2.length);
+    int nlive = 0;
+    for (final long bits : aLive) { nlive += Long.bitCount(bits); }
+    if (0 == nlive) { return 0.0; }
+    // all the live a1 bins, then the same a2 bins: the order
+    // of the full arrays. Interleaving a1[j], a2[j] can break
+    // round3's non-overlap assertions in iFastSum.
+    final double[] x = xs;
+    int k = 0;
+    for (int w=0;w<NWORDS;w++) {
+      long bits = aLive[w];
+      while (0L != bits) {
+        final int j = (w << 6) + Long.numberOfTrailingZeros(bits);
+        bits &= bits - 1;
+        x[k] = a1[j];
+        x[nlive+k] = a2[j];
+        k++; } }
     // Step 6
     // for checking IFastSum
     //return RationalFloatAccumulator.make().addAll(x).doubleValue(); }
-    final int[] n = new int[1];
-    n[0] = x.length;
-    return iFastSum(x,n,true); }
+    ns[0] = 2*nlive;
+    return iFastSum(x,ns,true); }
 
   //--------------------------------------------------------------
 
@@ -311,7 +385,7 @@ implements Accumulator<ZhuHayesBranch> {
     // Step 4(2)
     // Step 4(3)
     // Step 4(4)
-    twoInc(a1,a2,x);
+    twoInc(a1,a2,aLive,x);
     // Step 4(5)
     i += 1;
     // Step 4(6)
@@ -344,6 +418,153 @@ implements Accumulator<ZhuHayesBranch> {
     add(e);
     return this; }
 
+  //--------------------------------------------------------------
+  // vectorized bulk operations
+  //--------------------------------------------------------------
+
+  private static final int LANES = ZhuHayesLanes.LANES;
+
+  /** Elements per call to a lane kernel. */
+  private static final int BLOCK = 1024 * LANES;
+
+  /** Reserve <code>adds</code> more adds to each lane bin,
+   * compacting first if that would exceed {@link #NADDS}.
+   */
+
+  private final void reserveLanes (final int adds) {
+    if (vi + adds > NADDS) { i = compact(); }
+    vi += adds; }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final ZhuHayesBranch addAll (final double[] z) {
+    return addAll(z,0,z.length); }
+
+  @Override
+  public final ZhuHayesBranch addAll (final double[] z,
+                                         final int start,
+                                         final int end) {
+    final int m = start + ZhuHayesLanes.loopBound(end-start);
+    for (int k=start;k<m;k+=BLOCK) {
+      final int kk = Math.min(m,k+BLOCK);
+      reserveLanes((kk-k)/LANES);
+      ZhuHayesLanes.addAll(v1,v2,idx,vRange,z,k,kk); }
+    for (int k=m;k<end;k++) { add(z[k]); }
+    return this; }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final ZhuHayesBranch add2All (final double[] z) {
+    return add2All(z,0,z.length); }
+
+  @Override
+  public final ZhuHayesBranch add2All (final double[] z,
+                                          final int start,
+                                          final int end) {
+    final int m = start + ZhuHayesLanes.loopBound(end-start);
+    for (int k=start;k<m;k+=BLOCK) {
+      final int kk = Math.min(m,k+BLOCK);
+      reserveLanes(2*(kk-k)/LANES);
+      ZhuHayesLanes.add2All(v1,v2,idx,vRange,z,k,kk,w); }
+    for (int k=m;k<end;k++) { add2(z[k]); }
+    return this; }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final ZhuHayesBranch addProducts (final double[] z0,
+                                           final double[] z1) {
+    assert z0.length == z1.length;
+    return addProducts(z0,z1,0,z0.length); }
+
+  @Override
+  public final ZhuHayesBranch addProducts (final double[] z0,
+                                           final double[] z1,
+                                           final int start,
+                                           final int end) {
+    final int m = start + ZhuHayesLanes.loopBound(end-start);
+    for (int k=start;k<m;k+=BLOCK) {
+      final int kk = Math.min(m,k+BLOCK);
+      reserveLanes(2*(kk-k)/LANES);
+      ZhuHayesLanes.addProducts(v1,v2,idx,vRange,z0,z1,k,kk,w); }
+    for (int k=m;k<end;k++) { addProduct(z0[k],z1[k]); }
+    return this; }
+
+  //--------------------------------------------------------------
+  // MemorySegment input
+  //--------------------------------------------------------------
+  // strided input uses the scalar defaults
+
+  @Override
+  public final ZhuHayesBranch addAll (final MemorySegment z) {
+    final long n = z.byteSize() / Double.BYTES;
+    final long m = ZhuHayesLanes.loopBound(n);
+    for (long k=0;k<m;k+=BLOCK) {
+      final long end = Math.min(m,k+BLOCK);
+      reserveLanes((int) ((end-k)/LANES));
+      ZhuHayesLanes.addAll(v1,v2,idx,vRange,z,k,end); }
+    for (long k=m;k<n;k++) { add(z.getAtIndex(ELEMENT,k)); }
+    return this; }
+
+  @Override
+  public final ZhuHayesBranch add2All (final MemorySegment z) {
+    final long n = z.byteSize() / Double.BYTES;
+    final long m = ZhuHayesLanes.loopBound(n);
+    for (long k=0;k<m;k+=BLOCK) {
+      final long end = Math.min(m,k+BLOCK);
+      reserveLanes((int) (2*(end-k)/LANES));
+      ZhuHayesLanes.add2All(v1,v2,idx,vRange,z,k,end,w); }
+    for (long k=m;k<n;k++) { add2(z.getAtIndex(ELEMENT,k)); }
+    return this; }
+
+  @Override
+  public final ZhuHayesBranch addProducts (final MemorySegment z0,
+                                           final MemorySegment z1) {
+    final long n = z0.byteSize() / Double.BYTES;
+    assert z0.byteSize() == z1.byteSize();
+    final long m = ZhuHayesLanes.loopBound(n);
+    for (long k=0;k<m;k+=BLOCK) {
+      final long end = Math.min(m,k+BLOCK);
+      reserveLanes((int) (2*(end-k)/LANES));
+      ZhuHayesLanes.addProducts(v1,v2,idx,vRange,z0,z1,k,end,w); }
+    for (long k=m;k<n;k++) {
+      addProduct(z0.getAtIndex(ELEMENT,k),z1.getAtIndex(ELEMENT,k)); }
+    return this; }
+
+  //--------------------------------------------------------------
+  // merging
+  //--------------------------------------------------------------
+  /** Add a bin of another accumulator. */
+
+  private final void addBin (final double x) {
+    if (0.0 != x) {
+      twoInc(a1,a2,aLive,x);
+      i += 1;
+      if (i >= NADDS) { i = compact(); } } }
+
+  @Override
+  public final ZhuHayesBranch merge (final ZhuHayesBranch that) {
+    assert this != that;
+    for (int w=0;w<NWORDS;w++) {
+      long bits = that.aLive[w];
+      while (0L != bits) {
+        final int j = (w << 6) + Long.numberOfTrailingZeros(bits);
+        bits &= bits - 1;
+        addBin(that.a1[j]);
+        addBin(that.a2[j]); } }
+    if (0 < that.vi) {
+      final int[] r = that.vRange;
+      for (int l=0;l<ZhuHayesLanes.LENGTH;l+=ZhuHayesLanes.NBINS) {
+        for (int j=l+r[0];j<=l+r[1];j++) {
+          addBin(that.v1[j]);
+          addBin(that.v2[j]); } } }
+    return this; }
+
+  @Override
+  public final ZhuHayesBranch empty () { return make(); }
+
   //--------------------------------------------------------------
   // construction
   //--------------------------------------------------------------
@@ -352,8 +573,18 @@ implements Accumulator<ZhuHayesBranch> {
     i = 0;
     a1 = new double[NACCUMULATORS];
     a2 = new double[NACCUMULATORS];
+    vi = 0;
+    v1 = new double[ZhuHayesLanes.LENGTH];
+    v2 = new double[ZhuHayesLanes.LENGTH];
+    vRange = ZhuHayesLanes.range();
+    idx = new int[ZhuHayesLanes.IDX_LENGTH];
+    w = ZhuHayesLanes.SCATTER ? new double[2*BLOCK] : null;
+    xs = new double[2*NACCUMULATORS];
+    ns = new int[1];
     b1 = new double[NACCUMULATORS];
-    b2 = new double[NACCUMULATORS]; }
+    b2 = new double[NACCUMULATORS];
+    aLive = new long[NWORDS];
+    bLive = new long[NWORDS]; }
 
 
   public static final ZhuHayesBranch make () {
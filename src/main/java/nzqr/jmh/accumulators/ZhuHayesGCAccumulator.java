@@ -2,9 +2,9 @@ package nzqr.jmh.accumulators;
 
 import static nzqr.java.numbers.Doubles.biasedExponent;
 
+import java.lang.foreign.MemorySegment;
 import java.util.Arrays;
 
-import nzqr.java.accumulators.Accumulator;
 import nzqr.java.numbers.Doubles;
 
 //----------------------------------------------------------------
@@ -37,14 +37,30 @@ import nzqr.java.numbers.Doubles;
  * "(More or less) accurate floating point algorithms"</a>
  * (Apache 2.0 or MIT license, visited 2017-05-01)
  * <p>
+ * {@link #addAll(double[])}, {@link #add2All(double[])} and
+ * {@link #addProducts(double[],double[])} use Vector API kernels
+ * that bin each SIMD lane separately; the lane bins are folded
+ * into the scalar bins in <code>compact()</code>.
+ * Without 512 bit vectors, where the kernels' gathers and
+ * scatters would box, they use the scalar loop instead.
+ * <p>
+ * {@link #make(String)} with <code>"noalloc"</code> reuses
+ * scratch buffers in <code>compact()</code> and
+ * {@link #doubleValue()} instead of allocating new ones.
+ * <p>
+ * {@link #merge(ZhuHayesGCAccumulator)} adds the bins of another
+ * accumulator, for {@link ForkJoinAccumulator}.
+ * <p>
  * <em>NOT</em> thread safe!
  * <p>
  * @author palisades dot lakes at gmail dot com
- * @version 2019-04-21
+ * @version 2026-10-17
  */
 
 public final class ZhuHayesGCAccumulator
-implements Accumulator<ZhuHayesGCAccumulator> {
+implements IncrementalPartials<ZhuHayesGCAccumulator>,
+           MergeableAccumulator<ZhuHayesGCAccumulator>,
+           SegmentAccumulator<ZhuHayesGCAccumulator> {
 
   //--------------------------------------------------------------
 
@@ -119,14 +135,19 @@ implements Accumulator<ZhuHayesGCAccumulator> {
 
   //------------------------------------------------------------
 
+  /** Number of live entries in the <code>iFastSum</code>
+   * argument. A field rather than an <code>int[1]</code> box,
+   * so reading the sum doesn't allocate.
+   */
+  private int n;
+
   private final double iFastSum (final double[] x,
-                                 final int[] n,
                                  final boolean recurse) {
     // Step 1
     double s = 0.0;
 
     // Step 2
-    for (int ii=0;ii<n[0]; ii++) {
+    for (int ii=0;ii<n; ii++) {
       twoSum(s,x[ii]);
       s = sumTwo;
       if (! Double.isFinite(s)) { return s; }
@@ -138,7 +159,7 @@ implements Accumulator<ZhuHayesGCAccumulator> {
       double st = 0.0;
       double sm = 0.0;
       // Step 3(2)
-      for (int ii=0;ii<n[0];ii++) {
+      for (int ii=0;ii<n;ii++) {
         // Step 3(2)(a)
         twoSum(st, x[ii]);
         st = sumTwo;
@@ -162,7 +183,7 @@ implements Accumulator<ZhuHayesGCAccumulator> {
       if (! Double.isFinite(s)) { return s; }
       st = errTwo;
       x[count] = st;
-      n[0] = Math.addExact(count,1);
+      n = Math.addExact(count,1);
       // Step 3(5)
       if ((em == 0.0) || (em < halfUlp(s))) {
         // Step 3(5)(a)
@@ -181,14 +202,14 @@ implements Accumulator<ZhuHayesGCAccumulator> {
           || (round3(s, w1, e1) != s)
           || (round3(s, w2, e2) != s)) {
           // Step 3(5)(d)(i)
-          double s1 = iFastSum(x, n, false);
+          double s1 = iFastSum(x, false);
           // Step 3(5)(d)(ii)
           twoSum(s, s1);
           s = sumTwo;
           if (! Double.isFinite(s)) { return s; }
           s1 = errTwo;
           // Step 3(5)(d)(iii)
-          final double s2 = iFastSum(x, n, false);
+          final double s2 = iFastSum(x, false);
           // Step 3(5)(d)(iv)
           s = round3(s, s1, s2);
           if (! Double.isFinite(s)) { return s; } }
@@ -203,6 +224,22 @@ implements Accumulator<ZhuHayesGCAccumulator> {
   private double[] a1;
   private double[] a2;
 
+  // false: reuse scratch buffers, so nothing is allocated
+  // after construction
+  private final boolean allocating;
+  private double[] c1;
+  private double[] c2;
+  private final double[] xs;
+
+  // per-lane bins for the vector kernels
+  private int vi;
+  private final double[] v1;
+  private final double[] v2;
+  private final int[] vRange;
+  private final int[] idx;
+  // squares or products and their errors, for the pair kernels
+  private final double[] w;
+
   //--------------------------------------------------------------
 
   private static void twoInc (final double[] s,
@@ -220,8 +257,16 @@ implements Accumulator<ZhuHayesGCAccumulator> {
 
   private final int compact () {
     // Step 4(6)(a)
-    final double[] b1 = new double[NACCUMULATORS];
-    final double[] b2 = new double[NACCUMULATORS];
+    final double[] b1;
+    final double[] b2;
+    if (allocating) {
+      b1 = new double[NACCUMULATORS];
+      b2 = new double[NACCUMULATORS]; }
+    else {
+      b1 = c1;
+      b2 = c2;
+      Arrays.fill(b1,0.0);
+      Arrays.fill(b2,0.0); }
 
     // Step 4(6)(b)
     for (final double x : a1) {
@@ -232,8 +277,18 @@ implements Accumulator<ZhuHayesGCAccumulator> {
       // Step 4(6)(b)(i)
       // Step 4(6)(b)(ii)
       twoInc(b1,b2,x); }
+    if (0 < vi) {
+      for (int l=0;l<ZhuHayesLanes.LENGTH;l+=ZhuHayesLanes.NBINS) {
+        for (int j=l+vRange[0];j<=l+vRange[1];j++) {
+          twoInc(b1,b2,v1[j]);
+          twoInc(b1,b2,v2[j]); } }
+      ZhuHayesLanes.clear(v1,v2,vRange);
+      vi = 0; }
 
     // Step 4(6)(c)
+    if (! allocating) {
+      c1 = a1;
+      c2 = a2; }
     a1 = b1;
     a2 = b2;
 
@@ -257,22 +312,26 @@ implements Accumulator<ZhuHayesGCAccumulator> {
     i = 0;
     Arrays.fill(a1,0.0);
     Arrays.fill(a2,0.0);
+    if (0 < vi) {
+      ZhuHayesLanes.clear(v1,v2,vRange);
+      vi = 0; }
     return this; }
 
   //--------------------------------------------------------------
 
   @Override
   public final double doubleValue () {
+    if (0 < vi) { i = compact(); }
     // Step 5
-    final double[] x = new double[a1.length+a2.length];
+    final double[] x =
+      allocating ? new double[a1.length+a2.length] : xs;
     System.arraycopy(a1,0,x,0,a1.length);
     System.arraycopy(a2,0,x,a1.length,a2.length);
     // Step 6
     // for checking IFastSum
     //return RationalFloatAccumulator.make().addAll(x).doubleValue(); }
-    final int[] n = new int[1];
-    n[0] = x.length;
-    return iFastSum(x,n,true); }
+    n = x.length;
+    return iFastSum(x,true); }
 
   @Override
   public final Object value () {
@@ -319,18 +378,185 @@ implements Accumulator<ZhuHayesGCAccumulator> {
     add(e);
     return this; }
 
+  //--------------------------------------------------------------
+  // vectorized bulk operations
+  //--------------------------------------------------------------
+
+  private static final int LANES = ZhuHayesLanes.LANES;
+
+  /** Elements per call to a lane kernel. */
+  private static final int BLOCK = 1024 * LANES;
+
+  /** Reserve <code>adds</code> more adds to each lane bin,
+   * compacting first if that would exceed {@link #NADDS}.
+   */
+
+  private final void reserveLanes (final int adds) {
+    if (vi + adds > NADDS) { i = compact(); }
+    vi += adds; }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final ZhuHayesGCAccumulator addAll (final double[] z) {
+    return addAll(z,0,z.length); }
+
+  @Override
+  public final ZhuHayesGCAccumulator addAll (final double[] z,
+                                                final int start,
+                                                final int end) {
+    final int m = start + ZhuHayesLanes.loopBound(end-start);
+    for (int k=start;k<m;k+=BLOCK) {
+      final int kk = Math.min(m,k+BLOCK);
+      reserveLanes((kk-k)/LANES);
+      ZhuHayesLanes.addAll(v1,v2,idx,vRange,z,k,kk); }
+    for (int k=m;k<end;k++) { add(z[k]); }
+    return this; }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final ZhuHayesGCAccumulator add2All (final double[] z) {
+    return add2All(z,0,z.length); }
+
+  @Override
+  public final ZhuHayesGCAccumulator add2All (final double[] z,
+                                                 final int start,
+                                                 final int end) {
+    final int m = start + ZhuHayesLanes.loopBound(end-start);
+    for (int k=start;k<m;k+=BLOCK) {
+      final int kk = Math.min(m,k+BLOCK);
+      reserveLanes(2*(kk-k)/LANES);
+      ZhuHayesLanes.add2All(v1,v2,idx,vRange,z,k,kk,w); }
+    for (int k=m;k<end;k++) { add2(z[k]); }
+    return this; }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final ZhuHayesGCAccumulator addProducts (final double[] z0,
+                                                  final double[] z1) {
+    assert z0.length == z1.length;
+    return addProducts(z0,z1,0,z0.length); }
+
+  @Override
+  public final ZhuHayesGCAccumulator addProducts (final double[] z0,
+                                                  final double[] z1,
+                                                  final int start,
+                                                  final int end) {
+    final int m = start + ZhuHayesLanes.loopBound(end-start);
+    for (int k=start;k<m;k+=BLOCK) {
+      final int kk = Math.min(m,k+BLOCK);
+      reserveLanes(2*(kk-k)/LANES);
+      ZhuHayesLanes.addProducts(v1,v2,idx,vRange,z0,z1,k,kk,w); }
+    for (int k=m;k<end;k++) { addProduct(z0[k],z1[k]); }
+    return this; }
+
+  //--------------------------------------------------------------
+  // MemorySegment input
+  //--------------------------------------------------------------
+  // strided input uses the scalar defaults
+
+  @Override
+  public final ZhuHayesGCAccumulator addAll (final MemorySegment z) {
+    final long n = z.byteSize() / Double.BYTES;
+    final long m = ZhuHayesLanes.loopBound(n);
+    for (long k=0;k<m;k+=BLOCK) {
+      final long end = Math.min(m,k+BLOCK);
+      reserveLanes((int) ((end-k)/LANES));
+      ZhuHayesLanes.addAll(v1,v2,idx,vRange,z,k,end); }
+    for (long k=m;k<n;k++) { add(z.getAtIndex(ELEMENT,k)); }
+    return this; }
+
+  @Override
+  public final ZhuHayesGCAccumulator add2All (final MemorySegment z) {
+    final long n = z.byteSize() / Double.BYTES;
+    final long m = ZhuHayesLanes.loopBound(n);
+    for (long k=0;k<m;k+=BLOCK) {
+      final long end = Math.min(m,k+BLOCK);
+      reserveLanes((int) (2*(end-k)/LANES));
+      ZhuHayesLanes.add2All(v1,v2,idx,vRange,z,k,end,w); }
+    for (long k=m;k<n;k++) { add2(z.getAtIndex(ELEMENT,k)); }
+    return this; }
+
+  @Override
+  public final ZhuHayesGCAccumulator addProducts (final MemorySegment z0,
+                                                  final MemorySegment z1) {
+    final long n = z0.byteSize() / Double.BYTES;
+    assert z0.byteSize() == z1.byteSize();
+    final long m = ZhuHayesLanes.loopBound(n);
+    for (long k=0;k<m;k+=BLOCK) {
+      final long end = Math.min(m,k+BLOCK);
+      reserveLanes((int) (2*(end-k)/LANES));
+      ZhuHayesLanes.addProducts(v1,v2,idx,vRange,z0,z1,k,end,w); }
+    for (long k=m;k<n;k++) {
+      addProduct(z0.getAtIndex(ELEMENT,k),z1.getAtIndex(ELEMENT,k)); }
+    return this; }
+
+  //--------------------------------------------------------------
+  // merging
+  //--------------------------------------------------------------
+  /** Add the bins of another accumulator, one at a time. */
+
+  private final void addBins (final double[] s) {
+    for (final double x : s) {
+      if (0.0 != x) {
+        twoInc(a1,a2,x);
+        i += 1;
+        if (i >= NADDS) { i = compact(); } } } }
+
+  @Override
+  public final ZhuHayesGCAccumulator merge (final ZhuHayesGCAccumulator that) {
+    assert this != that;
+    addBins(that.a1);
+    addBins(that.a2);
+    if (0 < that.vi) {
+      addBins(that.v1);
+      addBins(that.v2); }
+    return this; }
+
+  @Override
+  public final ZhuHayesGCAccumulator empty () {
+    return new ZhuHayesGCAccumulator(allocating); }
+
   //--------------------------------------------------------------
   // construction
   //--------------------------------------------------------------
 
-  private ZhuHayesGCAccumulator () {
+  private ZhuHayesGCAccumulator (final boolean allocating) {
     i = 0;
     a1 = new double[NACCUMULATORS];
-    a2 = new double[NACCUMULATORS]; }
-
+    a2 = new double[NACCUMULATORS];
+    this.allocating = allocating;
+    c1 = allocating ? null : new double[NACCUMULATORS];
+    c2 = allocating ? null : new double[NACCUMULATORS];
+    xs = allocating ? null : new double[2*NACCUMULATORS];
+    vi = 0;
+    v1 = new double[ZhuHayesLanes.LENGTH];
+    v2 = new double[ZhuHayesLanes.LENGTH];
+    vRange = ZhuHayesLanes.range();
+    idx = new int[ZhuHayesLanes.IDX_LENGTH];
+    w = ZhuHayesLanes.SCATTER ? new double[2*BLOCK] : null; }
+
+
+  /** Allocates new bins in <code>compact()</code> and a new
+   * scratch array in {@link #doubleValue()}.
+   */
 
   public static final ZhuHayesGCAccumulator make () {
-    return new ZhuHayesGCAccumulator(); }
+    return new ZhuHayesGCAccumulator(true); }
+
+  /** <code>mode</code> is <code>"gc"</code>, same as
+   * {@link #make()}, or <code>"noalloc"</code>, which keeps
+   * preallocated scratch buffers, so nothing is allocated after
+   * construction.
+   */
+
+  public static final ZhuHayesGCAccumulator make (final String mode) {
+    return switch (mode) {
+      case "gc" -> new ZhuHayesGCAccumulator(true);
+      case "noalloc" -> new ZhuHayesGCAccumulator(false);
+      default -> throw new IllegalArgumentException(mode); }; }
 
   //--------------------------------------------------------------
 } // end of class
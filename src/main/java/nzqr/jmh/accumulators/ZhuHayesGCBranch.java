@@ -2,9 +2,9 @@ package nzqr.jmh.accumulators;
 
 import static nzqr.java.numbers.Doubles.biasedExponent;
 
+import java.lang.foreign.MemorySegment;
 import java.util.Arrays;
 
-import nzqr.java.accumulators.Accumulator;
 import nzqr.java.numbers.Doubles;
 
 //----------------------------------------------------------------
@@ -37,14 +37,22 @@ import nzqr.java.numbers.Doubles;
  * "(More or less) accurate floating point algorithms"</a>
  * (Apache 2.0 or MIT license, visited 2017-05-01)
  * <p>
+ * {@link #addAll(double[])}, {@link #add2All(double[])} and
+ * {@link #addProducts(double[],double[])} use Vector API kernels
+ * that bin each SIMD lane separately; the lane bins are folded
+ * into the scalar bins in <code>compact()</code>.
+ * Without 512 bit vectors, where the kernels' gathers and
+ * scatters would box, they use the scalar loop instead.
+ * <p>
  * <em>NOT</em> thread safe!
  * <p>
  * @author palisades dot lakes at gmail dot com
- * @version 2019-04-21
+ * @version 2026-10-17
  */
 
 public final class ZhuHayesGCBranch
-implements Accumulator<ZhuHayesGCBranch> {
+implements IncrementalPartials<ZhuHayesGCBranch>,
+           SegmentAccumulator<ZhuHayesGCBranch> {
 
   //--------------------------------------------------------------
 
@@ -205,6 +213,15 @@ implements Accumulator<ZhuHayesGCBranch> {
   private double[] a1;
   private double[] a2;
 
+  // per-lane bins for the vector kernels
+  private int vi;
+  private final double[] v1;
+  private final double[] v2;
+  private final int[] vRange;
+  private final int[] idx;
+  // squares or products and their errors, for the pair kernels
+  private final double[] w;
+
   //--------------------------------------------------------------
 
   private static final void twoInc (final double[] s,
@@ -236,6 +253,13 @@ implements Accumulator<ZhuHayesGCBranch> {
       // Step 4(6)(b)(i)
       // Step 4(6)(b)(ii)
       twoInc(b1,b2,x); }
+    if (0 < vi) {
+      for (int l=0;l<ZhuHayesLanes.LENGTH;l+=ZhuHayesLanes.NBINS) {
+        for (int j=l+vRange[0];j<=l+vRange[1];j++) {
+          twoInc(b1,b2,v1[j]);
+          twoInc(b1,b2,v2[j]); } }
+      ZhuHayesLanes.clear(v1,v2,vRange);
+      vi = 0; }
 
     // Step 4(6)(c)
     a1 = b1;
@@ -261,12 +285,16 @@ implements Accumulator<ZhuHayesGCBranch> {
     i = 0;
     Arrays.fill(a1,0.0);
     Arrays.fill(a2,0.0);
+    if (0 < vi) {
+      ZhuHayesLanes.clear(v1,v2,vRange);
+      vi = 0; }
     return this; }
 
   //--------------------------------------------------------------
 
   @Override
   public final double doubleValue () {
+    if (0 < vi) { i = compact(); }
     // Step 5
     final double[] x = new double[a1.length+a2.length];
     System.arraycopy(a1,0,x,0,a1.length);
@@ -323,6 +351,105 @@ implements Accumulator<ZhuHayesGCBranch> {
     add(e);
     return this; }
 
+  //--------------------------------------------------------------
+  // vectorized bulk operations
+  //--------------------------------------------------------------
+
+  private static final int LANES = ZhuHayesLanes.LANES;
+
+  /** Elements per call to a lane kernel. */
+  private static final int BLOCK = 1024 * LANES;
+
+  /** Reserve <code>adds</code> more adds to each lane bin,
+   * compacting first if that would exceed {@link #NADDS}.
+   */
+
+  private final void reserveLanes (final int adds) {
+    if (vi + adds > NADDS) { i = compact(); }
+    vi += adds; }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final ZhuHayesGCBranch addAll (final double[] z) {
+    final int n = z.length;
+    final int m = ZhuHayesLanes.loopBound(n);
+    for (int k=0;k<m;k+=BLOCK) {
+      final int end = Math.min(m,k+BLOCK);
+      reserveLanes((end-k)/LANES);
+      ZhuHayesLanes.addAll(v1,v2,idx,vRange,z,k,end); }
+    for (int k=m;k<n;k++) { add(z[k]); }
+    return this; }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final ZhuHayesGCBranch add2All (final double[] z) {
+    final int n = z.length;
+    final int m = ZhuHayesLanes.loopBound(n);
+    for (int k=0;k<m;k+=BLOCK) {
+      final int end = Math.min(m,k+BLOCK);
+      reserveLanes(2*(end-k)/LANES);
+      ZhuHayesLanes.add2All(v1,v2,idx,vRange,z,k,end,w); }
+    for (int k=m;k<n;k++) { add2(z[k]); }
+    return this; }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final ZhuHayesGCBranch addProducts (final double[] z0,
+                                             final double[] z1) {
+    final int n = z0.length;
+    assert n == z1.length;
+    final int m = ZhuHayesLanes.loopBound(n);
+    for (int k=0;k<m;k+=BLOCK) {
+      final int end = Math.min(m,k+BLOCK);
+      reserveLanes(2*(end-k)/LANES);
+      ZhuHayesLanes.addProducts(v1,v2,idx,vRange,z0,z1,k,end,w); }
+    for (int k=m;k<n;k++) { addProduct(z0[k],z1[k]); }
+    return this; }
+
+  //--------------------------------------------------------------
+  // MemorySegment input
+  //--------------------------------------------------------------
+  // strided input uses the scalar defaults
+
+  @Override
+  public final ZhuHayesGCBranch addAll (final MemorySegment z) {
+    final long n = z.byteSize() / Double.BYTES;
+    final long m = ZhuHayesLanes.loopBound(n);
+    for (long k=0;k<m;k+=BLOCK) {
+      final long end = Math.min(m,k+BLOCK);
+      reserveLanes((int) ((end-k)/LANES));
+      ZhuHayesLanes.addAll(v1,v2,idx,vRange,z,k,end); }
+    for (long k=m;k<n;k++) { add(z.getAtIndex(ELEMENT,k)); }
+    return this; }
+
+  @Override
+  public final ZhuHayesGCBranch add2All (final MemorySegment z) {
+    final long n = z.byteSize() / Double.BYTES;
+    final long m = ZhuHayesLanes.loopBound(n);
+    for (long k=0;k<m;k+=BLOCK) {
+      final long end = Math.min(m,k+BLOCK);
+      reserveLanes((int) (2*(end-k)/LANES));
+      ZhuHayesLanes.add2All(v1,v2,idx,vRange,z,k,end,w); }
+    for (long k=m;k<n;k++) { add2(z.getAtIndex(ELEMENT,k)); }
+    return this; }
+
+  @Override
+  public final ZhuHayesGCBranch addProducts (final MemorySegment z0,
+                                             final MemorySegment z1) {
+    final long n = z0.byteSize() / Double.BYTES;
+    assert z0.byteSize() == z1.byteSize();
+    final long m = ZhuHayesLanes.loopBound(n);
+    for (long k=0;k<m;k+=BLOCK) {
+      final long end = Math.min(m,k+BLOCK);
+      reserveLanes((int) (2*(end-k)/LANES));
+      ZhuHayesLanes.addProducts(v1,v2,idx,vRange,z0,z1,k,end,w); }
+    for (long k=m;k<n;k++) {
+      addProduct(z0.getAtIndex(ELEMENT,k),z1.getAtIndex(ELEMENT,k)); }
+    return this; }
+
   //--------------------------------------------------------------
   // construction
   //--------------------------------------------------------------
@@ -330,7 +457,13 @@ implements Accumulator<ZhuHayesGCBranch> {
   private ZhuHayesGCBranch () {
     i = 0;
     a1 = new double[NACCUMULATORS];
-    a2 = new double[NACCUMULATORS]; }
+    a2 = new double[NACCUMULATORS];
+    vi = 0;
+    v1 = new double[ZhuHayesLanes.LENGTH];
+    v2 = new double[ZhuHayesLanes.LENGTH];
+    vRange = ZhuHayesLanes.range();
+    idx = new int[ZhuHayesLanes.IDX_LENGTH];
+    w = ZhuHayesLanes.SCATTER ? new double[2*BLOCK] : null; }
 
 
   public static final ZhuHayesGCBranch make () {
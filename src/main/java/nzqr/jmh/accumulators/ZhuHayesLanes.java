@@ -0,0 +1,349 @@
+package nzqr.jmh.accumulators;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import nzqr.java.numbers.Doubles;
+
+//----------------------------------------------------------------
+/** Vector API kernels shared by the ZhuHayes accumulators.
+ * <p>
+ * Each SIMD lane gets its own block of exponent bins:
+ * lane <code>l</code> owns entries
+ * <code>[l*NBINS, (l+1)*NBINS)</code> of the lane arrays.
+ * Lanes never write the same entry, so gather/scatter
+ * needs no conflict detection, even when several lanes hold
+ * values with the same exponent.
+ * The owning accumulator folds the lane bins into its scalar
+ * bins in <code>compact()</code>.
+ * <p>
+ * The kernels widen <code>range</code>, the smallest and largest
+ * biased exponent added to any lane, so folding and clearing the
+ * lane bins need only visit <code>[range[0],range[1]]</code>
+ * in each lane.
+ * <p>
+ * The {@link MemorySegment} kernels are the same, but load
+ * native order <code>double</code>s straight from the segment;
+ * their indexes are element, not byte, offsets.
+ * <p>
+ * Uses the 'no branch' version of 'twoSum' in every lane.
+ * <p>
+ * C2 only compiles gathers and scatters to instructions with
+ * 512 bit vectors (AVX-512); with narrower vectors they box the
+ * lanes, allocating on every step, and are slower than the
+ * scalar loop. So {@link #loopBound(int)} is 0 unless
+ * {@link #SCATTER}, and callers do everything in their scalar
+ * tail loops.
+ * <p>
+ * Requires <code>--add-modules jdk.incubator.vector</code>.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+final class ZhuHayesLanes {
+
+  //--------------------------------------------------------------
+
+  static final VectorSpecies<Double> SPECIES =
+    DoubleVector.SPECIES_PREFERRED;
+
+  static final int LANES = SPECIES.length();
+
+  /** Are gathers and scatters compiled to instructions? */
+  static final boolean SCATTER = 512 <= SPECIES.vectorBitSize();
+
+  static final int NBINS = 1 << Doubles.EXPONENT_BITS;
+
+  /** Total length of the per-lane bin arrays. */
+  static final int LENGTH = LANES * NBINS;
+
+  private static final VectorSpecies<Long> LSPECIES =
+    LongVector.SPECIES_PREFERRED;
+
+  // no 32 bit shape, so at least 64
+  private static final VectorSpecies<Integer> ISPECIES =
+    VectorSpecies.of(
+      int.class,
+      VectorShape.forBitSize(Math.max(64,32*LANES)));
+
+  /** Minimum length of the <code>idx</code> scratch array. */
+  static final int IDX_LENGTH = ISPECIES.length();
+
+  private static final int EXPONENT_SHIFT = Double.PRECISION - 1;
+
+  private static final ByteOrder ORDER = ByteOrder.nativeOrder();
+
+  /** <code>l*NBINS</code> in lane <code>l</code>. */
+  private static final LongVector OFFSETS;
+  static {
+    assert LSPECIES.length() == LANES;
+    final long[] offsets = new long[LANES];
+    for (int l=0;l<LANES;l++) { offsets[l] = ((long) l)*NBINS; }
+    OFFSETS = LongVector.fromArray(LSPECIES,offsets,0); }
+
+  //--------------------------------------------------------------
+  /** Elements of <code>[0,n)</code> for the lane kernels:
+   * the largest multiple of {@link #LANES}, or 0 unless
+   * {@link #SCATTER}.
+   */
+
+  static final int loopBound (final int n) {
+    return SCATTER ? SPECIES.loopBound(n) : 0; }
+
+  static final long loopBound (final long n) {
+    return SCATTER ? n - (n % LANES) : 0L; }
+
+  //--------------------------------------------------------------
+  /** An empty exponent range. */
+
+  static final int[] range () { return new int[] { NBINS, -1, }; }
+
+  /** Zero the lane bins in <code>range</code>, and empty it. */
+
+  static final void clear (final double[] s,
+                           final double[] e,
+                           final int[] range) {
+    if (range[0] <= range[1]) {
+      for (int l=0;l<LENGTH;l+=NBINS) {
+        Arrays.fill(s,l+range[0],l+range[1]+1,0.0);
+        Arrays.fill(e,l+range[0],l+range[1]+1,0.0); } }
+    range[0] = NBINS;
+    range[1] = -1; }
+
+  //--------------------------------------------------------------
+
+  private static final LongVector exponents (final DoubleVector x) {
+    return
+      x.viewAsIntegralLanes()
+      .lanewise(VectorOperators.LSHR,EXPONENT_SHIFT)
+      .and((long) (NBINS-1)); }
+
+  /** Magnitude bits of <code>x</code>, which order like
+   * <code>|x|</code>.
+   */
+
+  private static final LongVector magnitude (final DoubleVector x) {
+    return x.viewAsIntegralLanes().and(Long.MAX_VALUE); }
+
+  /** Adding zero leaves a zero bin zero, so zeros needn't widen
+   * the range. Maps magnitude bits so that signed min ignores
+   * zero: <code>0</code> goes to <code>Long.MAX_VALUE</code>,
+   * and other magnitudes keep their order below it.
+   * Plain integer lane ops, to stay within C2's inlining budget;
+   * masked ops aren't always intrinsified.
+   */
+
+  private static final LongVector loKey (final LongVector mag) {
+    return mag.sub(1L).lanewise(VectorOperators.XOR,Long.MIN_VALUE); }
+
+  private static final int exponent (final long mag) {
+    return (int) (mag >>> EXPONENT_SHIFT); }
+
+  /** Lane-wise version of the scalar <code>twoInc</code>.
+   * <code>idx</code> is scratch, at least {@link #IDX_LENGTH}
+   * long.
+   */
+
+  private static final void twoInc (final double[] s,
+                                    final double[] e,
+                                    final int[] idx,
+                                    final DoubleVector x) {
+    // might get +/- Infinity due to overflow
+    ((IntVector)
+      exponents(x).add(OFFSETS)
+      .convertShape(VectorOperators.L2I,ISPECIES,0))
+    .intoArray(idx,0);
+    final DoubleVector s0 = DoubleVector.fromArray(SPECIES,s,0,idx,0);
+    final DoubleVector s1 = s0.add(x);
+    final DoubleVector z = s1.sub(s0);
+    final DoubleVector de = s0.sub(s1.sub(z)).add(x.sub(z));
+    s1.intoArray(s,0,idx,0);
+    DoubleVector.fromArray(SPECIES,e,0,idx,0).add(de)
+    .intoArray(e,0,idx,0); }
+
+  /** <code>lo</code> is the minimum {@link #loKey},
+   * <code>hi</code> the maximum magnitude.
+   * Scalar arguments only: vector arguments would be boxed if
+   * this isn't inlined.
+   */
+
+  private static final void widen (final int[] range,
+                                   final long lo,
+                                   final long hi) {
+    final long mlo = (lo ^ Long.MIN_VALUE) + 1L;
+    // mlo wraps to Long.MIN_VALUE if every value was zero
+    if (0L < mlo) {
+      range[0] = Math.min(range[0],exponent(mlo));
+      range[1] = Math.max(range[1],exponent(hi)); } }
+
+  //--------------------------------------------------------------
+  /** Lane-wise <code>twoInc</code> of <code>z[start,end)</code>,
+   * where <code>end-start</code> is a multiple of
+   * {@link #LANES}.
+   * <p>
+   * The <code>long</code> index keeps C2 from unrolling and
+   * predicating the loop, which, on JDK 21.0.1 with 512 bit
+   * vectors, miscompiles the gathers for some lengths (eg,
+   * 1024), crashing the JVM.
+   */
+
+  static final void addAll (final double[] s,
+                            final double[] e,
+                            final int[] idx,
+                            final int[] range,
+                            final double[] z,
+                            final int start,
+                            final int end) {
+    LongVector lo = LongVector.broadcast(LSPECIES,Long.MAX_VALUE);
+    LongVector hi = LongVector.zero(LSPECIES);
+    for (long k=start;k<end;k+=LANES) {
+      final DoubleVector x = DoubleVector.fromArray(SPECIES,z,(int) k);
+      final LongVector mag = magnitude(x);
+      lo = lo.min(loKey(mag));
+      hi = hi.max(mag);
+      twoInc(s,e,idx,x); }
+    widen(range,
+      lo.reduceLanes(VectorOperators.MIN),
+      hi.reduceLanes(VectorOperators.MAX)); }
+
+  /** Lane-wise <code>twoInc</code> of the exact squares of
+   * <code>z[start,end)</code>, as 2 doubles each.
+   * <p>
+   * The squares and their errors go to <code>w</code>, at least
+   * <code>2*(end-start)</code> long, a vector of each in turn,
+   * which {@link #addAll(double[],double[],int[],int[],double[],int,int)}
+   * then adds. Two <code>twoInc</code>s per step make the loop
+   * too big for C2 to inline the helpers, so their vector
+   * arguments are boxed, allocating every step.
+   */
+
+  static final void add2All (final double[] s,
+                             final double[] e,
+                             final int[] idx,
+                             final int[] range,
+                             final double[] z,
+                             final int start,
+                             final int end,
+                             final double[] w) {
+    int j = 0;
+    for (int k=start;k<end;k+=LANES) {
+      final DoubleVector x = DoubleVector.fromArray(SPECIES,z,k);
+      final DoubleVector x2 = x.mul(x);
+      x2.intoArray(w,j);
+      x.fma(x,x2.neg()).intoArray(w,j+LANES);
+      j += 2*LANES; }
+    addAll(s,e,idx,range,w,0,j); }
+
+  /** Lane-wise <code>twoInc</code> of the exact products
+   * <code>z0[k]*z1[k]</code>, as 2 doubles each, by way of
+   * <code>w</code>, like
+   * {@link #add2All(double[],double[],int[],int[],double[],int,int,double[])}.
+   */
+
+  static final void addProducts (final double[] s,
+                                 final double[] e,
+                                 final int[] idx,
+                                 final int[] range,
+                                 final double[] z0,
+                                 final double[] z1,
+                                 final int start,
+                                 final int end,
+                                 final double[] w) {
+    int j = 0;
+    for (int k=start;k<end;k+=LANES) {
+      final DoubleVector x0 = DoubleVector.fromArray(SPECIES,z0,k);
+      final DoubleVector x1 = DoubleVector.fromArray(SPECIES,z1,k);
+      final DoubleVector x01 = x0.mul(x1);
+      x01.intoArray(w,j);
+      x0.fma(x1,x01.neg()).intoArray(w,j+LANES);
+      j += 2*LANES; }
+    addAll(s,e,idx,range,w,0,j); }
+
+  //--------------------------------------------------------------
+  // MemorySegment input
+  //--------------------------------------------------------------
+
+  private static final DoubleVector load (final MemorySegment z,
+                                          final long k) {
+    return DoubleVector.fromMemorySegment(
+      SPECIES,z,k*Double.BYTES,ORDER); }
+
+  /** Lane-wise <code>twoInc</code> of elements
+   * <code>[start,end)</code> of <code>z</code>.
+   */
+
+  static final void addAll (final double[] s,
+                            final double[] e,
+                            final int[] idx,
+                            final int[] range,
+                            final MemorySegment z,
+                            final long start,
+                            final long end) {
+    LongVector lo = LongVector.broadcast(LSPECIES,Long.MAX_VALUE);
+    LongVector hi = LongVector.zero(LSPECIES);
+    for (long k=start;k<end;k+=LANES) {
+      final DoubleVector x = load(z,k);
+      final LongVector mag = magnitude(x);
+      lo = lo.min(loKey(mag));
+      hi = hi.max(mag);
+      twoInc(s,e,idx,x); }
+    widen(range,
+      lo.reduceLanes(VectorOperators.MIN),
+      hi.reduceLanes(VectorOperators.MAX)); }
+
+  static final void add2All (final double[] s,
+                             final double[] e,
+                             final int[] idx,
+                             final int[] range,
+                             final MemorySegment z,
+                             final long start,
+                             final long end,
+                             final double[] w) {
+    int j = 0;
+    for (long k=start;k<end;k+=LANES) {
+      final DoubleVector x = load(z,k);
+      final DoubleVector x2 = x.mul(x);
+      x2.intoArray(w,j);
+      x.fma(x,x2.neg()).intoArray(w,j+LANES);
+      j += 2*LANES; }
+    addAll(s,e,idx,range,w,0,j); }
+
+  static final void addProducts (final double[] s,
+                                 final double[] e,
+                                 final int[] idx,
+                                 final int[] range,
+                                 final MemorySegment z0,
+                                 final MemorySegment z1,
+                                 final long start,
+                                 final long end,
+                                 final double[] w) {
+    int j = 0;
+    for (long k=start;k<end;k+=LANES) {
+      final DoubleVector x0 = load(z0,k);
+      final DoubleVector x1 = load(z1,k);
+      final DoubleVector x01 = x0.mul(x1);
+      x01.intoArray(w,j);
+      x0.fma(x1,x01.neg()).intoArray(w,j+LANES);
+      j += 2*LANES; }
+    addAll(s,e,idx,range,w,0,j); }
+
+  //--------------------------------------------------------------
+  // disable constructor
+  //--------------------------------------------------------------
+
+  private ZhuHayesLanes () {
+    throw new UnsupportedOperationException(
+      "can't instantiate " + getClass()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
@@ -0,0 +1,261 @@
+package nzqr.jmh.benchmarks;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import nzqr.java.SystemInfo;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/** JMH options from layered properties, later layers winning:
+ * <ol>
+ * <li>the base for a benchmark package, eg,
+ * <code>accumulate</code>, the full run;
+ * <li>a named profile, <code>full</code> (the default),
+ * <code>quick</code> or <code>smoke</code>;
+ * <li>an optional properties file;
+ * <li>system properties <code>nzqr.config.&lt;key&gt;</code>;
+ * <li>explicit overrides, eg, from {@link Run}'s command line.
+ * </ol>
+ * The base and profiles are resources in
+ * <code>nzqr/jmh/benchmarks/config/</code>.
+ * The profile and file are chosen with the keys
+ * <code>profile</code> and <code>file</code>, from the
+ * overrides or system properties, so any <code>main</code> that
+ * goes through a <code>Defaults</code> class can run, eg,
+ * the smoke profile:
+ *
+ * <pre>
+ * java -Dnzqr.config.profile=smoke -cp target\benchmarks.jar nzqr.jmh.benchmarks.accumulate.Totals
+ * </pre>
+ *
+ * Keys: <code>mode</code> (JMH's short or long name),
+ * <code>time.unit</code> (a <code>TimeUnit</code>),
+ * <code>threads</code>, <code>forks</code>,
+ * <code>warmup.iterations</code>, <code>warmup.time</code>,
+ * <code>measurement.iterations</code>,
+ * <code>measurement.time</code> (eg, <code>20s</code>),
+ * <code>heap</code> (<code>-Xms</code> and <code>-Xmx</code>),
+ * <code>young</code> (<code>-Xmn</code>),
+ * <code>gc</code> (eg, <code>ParallelGC</code> for
+ * <code>-XX:+UseParallelGC</code>),
+ * <code>jvm.args</code> (space separated),
+ * <code>output</code> (the csv directory),
+ * and <code>param.&lt;name&gt;</code>, comma separated
+ * <code>@Param</code> values, for every included benchmark that
+ * has the parameter. Empty values mean the JVM's or
+ * the benchmark's default. Unknown keys are errors, so typos
+ * don't silently run the full sweep.
+ * <p>
+ * Not instantiable. Class slots/methods only.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class Config {
+
+  //--------------------------------------------------------------
+
+  /** Prefix for system property overrides. */
+  public static final String PREFIX = "nzqr.config.";
+
+  public static final String DEFAULT_PROFILE = "full";
+
+  private static final String PARAM = "param.";
+
+  private static final Set<String> KEYS =
+    Set.of(
+      "mode", "time.unit", "threads", "forks",
+      "warmup.iterations", "warmup.time",
+      "measurement.iterations", "measurement.time",
+      "heap", "young", "gc", "jvm.args", "output",
+      // selection, for Run
+      "profile", "file", "base", "name");
+
+  private static final DateTimeFormatter DTF =
+    DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+  public static final String now () {
+    return LocalDateTime.now().format(DTF); }
+
+  //--------------------------------------------------------------
+  // layers
+  //--------------------------------------------------------------
+
+  private static final void resource (final Properties p,
+                                      final String name) {
+    final String path = "config/" + name + ".properties";
+    try (final InputStream in = Config.class.getResourceAsStream(path)) {
+      if (null == in) {
+        throw new IllegalArgumentException(
+          "no config " + name + ": expected "
+          + Config.class.getPackageName().replace('.','/')
+          + "/" + path); }
+      p.load(in); }
+    catch (final IOException e) {
+      throw new UncheckedIOException(e); } }
+
+  private static final void file (final Properties p,
+                                  final File f) {
+    try (final Reader r = new FileReader(f)) {
+      p.load(r); }
+    catch (final IOException e) {
+      throw new UncheckedIOException(e); } }
+
+  /** From the overrides, else the system properties. */
+
+  private static final String select (final String key,
+                                      final Map<String,String> overrides) {
+    final String value = overrides.get(key);
+    return (null == value) ? System.getProperty(PREFIX + key) : value; }
+
+  private static final void check (final Properties p) {
+    for (final String key : p.stringPropertyNames()) {
+      if (! (KEYS.contains(key) || key.startsWith(PARAM))) {
+        throw new IllegalArgumentException(
+          "unknown config key: " + key); } } }
+
+  /** All the layers, for <code>base</code>, eg,
+   * <code>accumulate</code> or <code>arithmetic</code>.
+   */
+
+  public static final Properties load (final String base,
+                                       final Map<String,String> overrides) {
+    final Properties p = new Properties();
+    resource(p,base);
+    final String profile = select("profile",overrides);
+    resource(p,(null == profile) ? DEFAULT_PROFILE : profile);
+    final String f = select("file",overrides);
+    if (null != f) { file(p,new File(f)); }
+    for (final String key : System.getProperties().stringPropertyNames()) {
+      if (key.startsWith(PREFIX)) {
+        p.setProperty(
+          key.substring(PREFIX.length()),System.getProperty(key)); } }
+    p.putAll(overrides);
+    check(p);
+    return p; }
+
+  //--------------------------------------------------------------
+  // options
+  //--------------------------------------------------------------
+
+  private static final String get (final Properties p,
+                                   final String key) {
+    final String value = p.getProperty(key);
+    if ((null == value) || value.isBlank()) {
+      throw new IllegalArgumentException("missing config " + key); }
+    return value.trim(); }
+
+  private static final int getInt (final Properties p,
+                                   final String key) {
+    return Integer.parseInt(get(p,key)); }
+
+  private static final TimeValue getTime (final Properties p,
+                                          final String key) {
+    return TimeValue.fromString(get(p,key)); }
+
+  private static final boolean isSet (final Properties p,
+                                      final String key) {
+    final String value = p.getProperty(key);
+    return (null != value) && (! value.isBlank()); }
+
+  public static final String[] jvmArgs (final Properties p) {
+    final List<String> args = new ArrayList<>();
+    if (isSet(p,"jvm.args")) {
+      for (final String arg : get(p,"jvm.args").split("\\s+")) {
+        args.add(arg); } }
+    if (isSet(p,"heap")) {
+      args.add("-Xms" + get(p,"heap"));
+      args.add("-Xmx" + get(p,"heap")); }
+    if (isSet(p,"young")) {
+      args.add("-Xmn" + get(p,"young")); }
+    if (isSet(p,"gc")) {
+      args.add("-XX:+Use" + get(p,"gc")); }
+    return args.toArray(new String[0]); }
+
+  /** <code>&lt;output&gt;/&lt;name&gt;-&lt;model&gt;-&lt;timestamp&gt;.csv</code>.
+   */
+
+  public static final File csv (final Properties p,
+                                final String fileName) {
+    final File parent = new File(get(p,"output"));
+    parent.mkdirs();
+    return
+      new File(parent,
+               fileName
+               + "-" + SystemInfo.model()
+               + "-" + now()
+               + ".csv"); }
+
+  public static final Options options (final Properties p,
+                                       final String fileName,
+                                       final String includes) {
+    final ChainedOptionsBuilder builder =
+      new OptionsBuilder()
+      .mode(Mode.deepValueOf(get(p,"mode")))
+      .timeUnit(TimeUnit.valueOf(get(p,"time.unit")))
+      .include(includes)
+      .resultFormat(ResultFormatType.CSV)
+      .result(csv(p,fileName).getPath())
+      .threads(getInt(p,"threads"))
+      .forks(getInt(p,"forks"))
+      .shouldFailOnError(true)
+      .shouldDoGC(true)
+      .jvmArgs(jvmArgs(p))
+      .warmupIterations(getInt(p,"warmup.iterations"))
+      .warmupTime(getTime(p,"warmup.time"))
+      .measurementIterations(getInt(p,"measurement.iterations"))
+      .measurementTime(getTime(p,"measurement.time"));
+    for (final String key : p.stringPropertyNames()) {
+      if (key.startsWith(PARAM) && isSet(p,key)) {
+        builder.param(
+          key.substring(PARAM.length()),
+          get(p,key).split("\\s*,\\s*")); } }
+    return Profilers.attach(builder).build(); }
+
+  public static final Options options (final String base,
+                                       final String fileName,
+                                       final String includes,
+                                       final Map<String,String> overrides) {
+    return options(load(base,overrides),fileName,includes); }
+
+  //--------------------------------------------------------------
+
+  /** Run, and write {@link Results}' wide csv too. */
+
+  public static final void run (final Options options) {
+    try {
+      Results.write(options,new Runner(options).run()); }
+    catch (final RunnerException e) {
+      throw new RuntimeException(e); } }
+
+  //--------------------------------------------------------------
+  // disable constructor
+  //--------------------------------------------------------------
+
+  private Config () {
+    throw new UnsupportedOperationException(
+      "can't instantiate " + getClass()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
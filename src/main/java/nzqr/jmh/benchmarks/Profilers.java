@@ -0,0 +1,103 @@
+package nzqr.jmh.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.profile.LinuxPerfNormProfiler;
+import org.openjdk.jmh.profile.LinuxPerfProfiler;
+import org.openjdk.jmh.profile.Profiler;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+
+/** JMH profilers to attach, from the
+ * <code>nzqr.profile</code> system property, which is off by
+ * default:
+ * <ul>
+ * <li><code>-Dnzqr.profile=true</code>: {@link #DEFAULT},
+ * <code>gc</code> (<code>gc.alloc.rate.norm</code>, bytes per op)
+ * and <code>perfnorm</code> (cycles, cache misses, ..., per op);
+ * <li><code>-Dnzqr.profile=gc,perf,...</code>: any JMH profiler
+ * names, as for <code>-prof</code>.
+ * </ul>
+ * The Linux perf profilers are skipped, with a message, where
+ * <code>perf</code> isn't installed, or isn't permitted.
+ * <p>
+ * Profiler results are secondary results, so they go in JMH's
+ * csv, and as columns in {@link Results}' wide csv.
+ * <p>
+ * Not instantiable. Class slots/methods only.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class Profilers {
+
+  //--------------------------------------------------------------
+
+  public static final String PROPERTY = "nzqr.profile";
+
+  public static final List<String> DEFAULT = List.of("gc","perfnorm");
+
+  /** Profilers whose availability is checked here; JMH fails
+   * the whole run if they can't start.
+   */
+  private static final Map<String,Class<? extends Profiler>> CHECKED =
+    Map.of(
+      "gc", GCProfiler.class,
+      "perf", LinuxPerfProfiler.class,
+      "perfnorm", LinuxPerfNormProfiler.class);
+
+  //--------------------------------------------------------------
+
+  /** Profiler names from {@link #PROPERTY}, empty if it's
+   * unset or <code>false</code>.
+   */
+
+  public static final List<String> names () {
+    final String value = System.getProperty(PROPERTY,"false").trim();
+    if (value.isEmpty() || "false".equalsIgnoreCase(value)) {
+      return List.of(); }
+    if ("true".equalsIgnoreCase(value)) { return DEFAULT; }
+    final List<String> names = new ArrayList<>();
+    for (final String name : value.split(",")) {
+      if (! name.isBlank()) { names.add(name.trim()); } }
+    return names; }
+
+  /** Can the profiler be constructed here?
+   * True for names not in {@link #CHECKED}.
+   */
+
+  public static final boolean available (final String name) {
+    final Class<? extends Profiler> c = CHECKED.get(name);
+    if (null == c) { return true; }
+    try {
+      c.getConstructor(String.class).newInstance("");
+      return true; }
+    catch (final InvocationTargetException e) {
+      System.err.println(
+        "skipping profiler " + name + ": " + e.getCause().getMessage());
+      return false; }
+    catch (final ReflectiveOperationException e) {
+      throw new IllegalStateException(name,e); } }
+
+  /** Add the available profilers in {@link #names()}. */
+
+  public static final ChainedOptionsBuilder attach (final ChainedOptionsBuilder builder) {
+    for (final String name : names()) {
+      if (available(name)) { builder.addProfiler(name); } }
+    return builder; }
+
+  //--------------------------------------------------------------
+  // disable constructor
+  //--------------------------------------------------------------
+
+  private Profilers () {
+    throw new UnsupportedOperationException(
+      "can't instantiate " + getClass()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
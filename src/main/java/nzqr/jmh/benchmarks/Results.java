@@ -0,0 +1,142 @@
+package nzqr.jmh.benchmarks;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.AverageTimeResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.TextResult;
+import org.openjdk.jmh.results.ThroughputResult;
+import org.openjdk.jmh.runner.options.Options;
+
+/** JMH's csv has a row for each secondary result
+ * (<code>@AuxCounters</code> and profilers), under the primary
+ * one. This writes the same results with one row per benchmark
+ * and parameters, and the secondary results as extra columns,
+ * to <code>&lt;name&gt;-wide.csv</code>, beside JMH's
+ * <code>&lt;name&gt;.csv</code>.
+ * <p>
+ * Counters are converted to per second, whatever the mode,
+ * eg, <code>elements/s</code>; other secondary results are
+ * written as is, with their unit in the column name, except
+ * text results, eg, from <code>perfasm</code>, which JMH prints.
+ * <p>
+ * Not instantiable. Class slots/methods only.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class Results {
+
+  //--------------------------------------------------------------
+
+  private static final String quote (final String s) {
+    return "\"" + s.replace("\"","\"\"") + "\""; }
+
+  private static final double seconds (final TimeUnit unit) {
+    return unit.toNanos(1L) * 1.0e-9; }
+
+  /** Counters in average time mode are time per count,
+   * and in throughput mode counts per time.
+   */
+
+  private static final boolean isCounter (final Result r) {
+    return (r instanceof AverageTimeResult)
+      || (r instanceof ThroughputResult); }
+
+  private static final String column (final Result r) {
+    if (isCounter(r)) { return r.getLabel() + "/s"; }
+    return r.getLabel() + " (" + r.getScoreUnit() + ")"; }
+
+  private static final double value (final Result r,
+                                     final TimeUnit unit) {
+    final double x = r.getScore();
+    if (r instanceof AverageTimeResult) {
+      return 1.0 / (x * seconds(unit)); }
+    if (r instanceof ThroughputResult) {
+      return x / seconds(unit); }
+    return x; }
+
+  //--------------------------------------------------------------
+
+  /** <code>foo.csv</code> to <code>foo-wide.csv</code>. */
+
+  public static final File wide (final String csv) {
+    final String stem =
+      csv.endsWith(".csv")
+      ? csv.substring(0,csv.length() - ".csv".length())
+      : csv;
+    return new File(stem + "-wide.csv"); }
+
+  /** Does nothing if <code>options</code> has no result file.
+   */
+
+  public static final void write (final Options options,
+                                  final Collection<RunResult> results) {
+    if (options.getResult().hasValue()) {
+      write(wide(options.getResult().get()),results); } }
+
+  public static final void write (final File f,
+                                  final Collection<RunResult> results) {
+    final Set<String> params = new LinkedHashSet<>();
+    final Set<String> columns = new LinkedHashSet<>();
+    for (final RunResult r : results) {
+      params.addAll(r.getParams().getParamsKeys());
+      for (final Result s : r.getSecondaryResults().values()) {
+        if (! (s instanceof TextResult)) { columns.add(column(s)); } } }
+    try (final PrintWriter pw = new PrintWriter(new FileWriter(f))) {
+      final StringBuilder header = new StringBuilder(
+        "\"Benchmark\",\"Mode\",\"Threads\",\"Samples\","
+        + "\"Score\",\"Score Error (99.9%)\",\"Unit\"");
+      for (final String p : params) {
+        header.append(',').append(quote("Param: " + p)); }
+      for (final String c : columns) {
+        header.append(',').append(quote(c)); }
+      pw.println(header);
+      for (final RunResult r : results) {
+        final BenchmarkParams bp = r.getParams();
+        final Result primary = r.getPrimaryResult();
+        final StringBuilder row = new StringBuilder();
+        row.append(quote(bp.getBenchmark()))
+        .append(',').append(quote(bp.getMode().shortLabel()))
+        .append(',').append(bp.getThreads())
+        .append(',').append(primary.getSampleCount())
+        .append(',').append(primary.getScore())
+        .append(',').append(primary.getScoreError())
+        .append(',').append(quote(primary.getScoreUnit()));
+        for (final String p : params) {
+          final String v = bp.getParam(p);
+          row.append(',').append((null == v) ? "" : quote(v)); }
+        final Map<String,Result> secondary = r.getSecondaryResults();
+        for (final String c : columns) {
+          row.append(',');
+          for (final Result s : secondary.values()) {
+            if (c.equals(column(s))) {
+              row.append(value(s,bp.getTimeUnit()));
+              break; } } }
+        pw.println(row); } }
+    catch (final IOException e) {
+      throw new UncheckedIOException(e); } }
+
+  //--------------------------------------------------------------
+  // disable constructor
+  //--------------------------------------------------------------
+
+  private Results () {
+    throw new UnsupportedOperationException(
+      "can't instantiate " + getClass()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
@@ -0,0 +1,73 @@
+package nzqr.jmh.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/** Run benchmarks with a {@link Config} profile and overrides.
+ * Arguments of the form <code>key=value</code> are
+ * {@link Config} overrides; the rest are benchmark name
+ * regexps, as for JMH's <code>include</code>.
+ * Besides the {@link Config} keys:
+ * <ul>
+ * <li><code>base</code>: the benchmark package,
+ * <code>accumulate</code> (the default) or
+ * <code>arithmetic</code>;
+ * <li><code>name</code>: the csv file name prefix,
+ * default the benchmark regexps, without their non-word
+ * characters, joined with <code>-</code>, eg,
+ * <code>Total-Partial</code> for <code>\.Total \.Partial</code>.
+ * </ul>
+ * Results go to
+ * <code>output/&lt;name&gt;-&lt;model&gt;-&lt;timestamp&gt;.csv</code>,
+ * as from the <code>Defaults</code> classes.
+ *
+ * <pre>
+ * java -cp target\benchmarks.jar nzqr.jmh.benchmarks.Run profile=smoke name=Smoke \.Total \.Partial
+ * java -cp target\benchmarks.jar nzqr.jmh.benchmarks.Run profile=quick param.dim=1023,65535 param.precision=double,float TotalDot
+ * java -cp target\benchmarks.jar nzqr.jmh.benchmarks.Run base=arithmetic file=my.properties Multiply
+ * </pre>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class Run {
+
+  //--------------------------------------------------------------
+
+  public static final void main (final String[] args) {
+    final Map<String,String> overrides = new LinkedHashMap<>();
+    final List<String> benchmarks = new ArrayList<>();
+    for (final String arg : args) {
+      final int i = arg.indexOf('=');
+      if (0 < i) {
+        overrides.put(arg.substring(0,i),arg.substring(i+1)); }
+      else {
+        benchmarks.add(arg); } }
+    if (benchmarks.isEmpty()) {
+      throw new IllegalArgumentException(
+        "usage: Run [key=value ...] benchmark ..."); }
+    final String base = overrides.getOrDefault("base","accumulate");
+    final String name =
+      overrides.getOrDefault("name",
+        benchmarks.stream()
+        .map(b -> b.replaceAll("\\W+",""))
+        .collect(Collectors.joining("-")));
+    Config.run(
+      Config.options(
+        base,name,String.join("|",benchmarks),overrides)); }
+
+  //--------------------------------------------------------------
+  // disable constructor
+  //--------------------------------------------------------------
+
+  private Run () {
+    throw new UnsupportedOperationException(
+      "can't instantiate " + getClass()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
@@ -2,19 +2,72 @@ package nzqr.jmh.benchmarks.accumulate;
 
 //import java.util.List;
 
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
 import nzqr.java.accumulators.Accumulator;
 import nzqr.java.accumulators.BigFloatAccumulator;
 import nzqr.java.prng.Generator;
 import nzqr.java.prng.Generators;
 import nzqr.java.test.Common;
+import nzqr.jmh.accumulators.FloatArrayAccumulator;
+import nzqr.jmh.accumulators.SegmentAccumulator;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
 
 /**
  * Benchmark operations on <code>double[]</code>.
+ * <p>
+ * Subclasses that return true from {@link #mapped()} also get
+ * each invocation's inputs in {@link #m0} and {@link #m1},
+ * slices of a memory-mapped temporary file, for benchmarks of
+ * the {@link SegmentAccumulator} methods.
+ * <p>
+ * With <code>precision=float</code>, generated values are
+ * rounded to <code>float</code>, in {@link #x0} and {@link #x1}
+ * as well as in {@link #f0} and {@link #f1}, so every
+ * accumulator, and the exact truth, sees the same values.
+ * Subclasses call the <code>float[]</code> methods of
+ * accumulators that have them, see {@link #floats(Accumulator)}.
+ * The generator's values have to be in <code>float</code> range.
+ * <p>
+ * Inputs come from a pool of <code>pool</code> pre-generated
+ * pairs, with the exact result of {@link #operation} on each,
+ * cached in {@link Datasets} files, so they are generated once
+ * per generator, <code>dim</code>, precision and pool size,
+ * and the exact results once per benchmark as well.
+ * Each iteration uses the next pair, so nothing is generated,
+ * or computed exactly, between timed calls.
+ * <p>
+ * With <code>accuracy=true</code>, each measured iteration's
+ * exact and estimated value (the last element, for prefix
+ * sums), residual, and largest absolute residual over all
+ * elements, are stored in preallocated arrays, outside the
+ * timed call, and written, at the end of the trial, to
+ * <code>output/&lt;benchmark&gt;/&lt;accumulator&gt;-&lt;generator&gt;-&lt;time&gt;.csv</code>,
+ * for <code>src/scripts/r/accuracy.r</code>.
+ * Every invocation in an iteration has the same inputs, so the
+ * last result is recorded, at the end of the iteration;
+ * a per invocation fixture would distort short calls.
+ * At most {@link #RECORDS} iterations are kept.
+ * <p>
+ * {@link Counters} reports elements and input bytes, as
+ * secondary results; {@link nzqr.jmh.benchmarks.Results}
+ * writes them as columns.
  *
  * @author palisades dot lakes at gmail dot com
- * @version 2026-05-03
+ * @version 2026-10-17
  */
 
 //@SuppressWarnings("unchecked")
@@ -45,23 +98,35 @@ public abstract class Base {
 
   @Param({
 
+    "nzqr.jmh.accumulators.AdaptiveAccumulator",
     "nzqr.jmh.accumulators.BigDecimalAccumulator",
+    "nzqr.jmh.accumulators.BigDecimalAccumulator:naive",
     "nzqr.jmh.accumulators.BigFractionAccumulator",
     "nzqr.java.accumulators.BigFloatAccumulator",
     "nzqr.java.accumulators.DistilledAccumulator",
     "nzqr.java.accumulators.DoubleAccumulator",
     "nzqr.jmh.accumulators.DoubleFmaAccumulator",
+    "nzqr.jmh.accumulators.DoubleFmaVectorAccumulator",
+    "nzqr.jmh.accumulators.DotKAccumulator:2",
+    "nzqr.jmh.accumulators.DotKAccumulator:3",
     "nzqr.jmh.accumulators.EFloatAccumulator",
     "nzqr.jmh.accumulators.ERationalAccumulator",
+    "nzqr.jmh.accumulators.ERationalAccumulator:dyadic",
     "nzqr.jmh.accumulators.FloatAccumulator",
     "nzqr.jmh.accumulators.FloatFmaAccumulator",
+    "nzqr.jmh.accumulators.IFastAccumulator",
+    "nzqr.jmh.accumulators.IFastAccumulator:bounded",
     "nzqr.java.accumulators.KahanAccumulator",
     "nzqr.jmh.accumulators.KahanFmaAccumulator",
+    "nzqr.jmh.accumulators.KahanLanesAccumulator",
+    "nzqr.jmh.accumulators.NeumaierLanesAccumulator",
     "nzqr.jmh.accumulators.RatioAccumulator",
     "nzqr.java.accumulators.RationalFloatAccumulator",
+    "nzqr.jmh.accumulators.XSumAccumulator",
     "nzqr.java.accumulators.ZhuHayesAccumulator",
     "nzqr.jmh.accumulators.ZhuHayesBranch",
     "nzqr.jmh.accumulators.ZhuHayesGCAccumulator",
+    "nzqr.jmh.accumulators.ZhuHayesGCAccumulator:noalloc",
     "nzqr.jmh.accumulators.ZhuHayesGCBranch",
 
     // Fails with infinite loop, stack overflow exception,
@@ -91,14 +156,182 @@ public abstract class Base {
   })
   int dim;
 
+  /** <code>double</code> or <code>float</code> input. */
+  @Param({ "double", })
+  //@Param({ "double", "float", })
+  String precision;
+
+  /** Number of pre-generated input pairs; iteration
+   * <code>i</code> uses pair <code>i % pool</code>.
+   */
+  @Param({ "8", })
+  int pool;
+
+  double[][] pool0;
+  double[][] pool1;
+  // exact operation() on each pair
+  double[][] truths;
+  int next;
+
   double[] x0;
   double[] x1;
 
+  // x0 and x1 as float[], if precision=float
+  float[] f0;
+  float[] f1;
+
+  // x0 and x1, in a mapped file, if mapped()
+  FileChannel channel;
+  Arena arena;
+  MemorySegment m0;
+  MemorySegment m1;
+
   // estimated value(s)
   double[] p;
 
+  // input bytes per call, for the counters
+  double bytes;
+
+  //--------------------------------------------------------------
+
+  /** Record residuals, see the class comment. */
+  @Param({ "false", })
+  boolean accuracy;
+
+  /** Iterations recorded per trial, at most. */
+  static final int RECORDS = 1 << 16;
+
+  // per iteration, if accuracy
+  private int[] rPair;
+  private double[] rTruth;
+  private double[] rEstimate;
+  private double[] rMaxResidual;
+  private int nRecords;
+  private boolean recording;
+  // pool index of the current inputs
+  private int pair;
+
   //--------------------------------------------------------------
 
+  /**
+   * <code>name</code> is either a class name, with a static
+   * <code>make()</code>, or <code>className:mode</code>,
+   * for classes with a static <code>make(String mode)</code>.
+   */
+
+  public static final Accumulator makeAccumulator (final String name) {
+    final int i = name.indexOf(':');
+    if (0 > i) { return Common.makeAccumulator(name); }
+    final String className = name.substring(0,i);
+    final String mode = name.substring(i+1);
+    try {
+      return (Accumulator)
+        Class.forName(className)
+        .getMethod("make",String.class)
+        .invoke(null,mode); }
+    catch (final ReflectiveOperationException e) {
+      throw new IllegalArgumentException(name,e); } }
+
+  //--------------------------------------------------------------
+  // MemorySegment input, for any Accumulator
+  //--------------------------------------------------------------
+
+  private static final long length (final MemorySegment z) {
+    return z.byteSize() / Double.BYTES; }
+
+  private static final double get (final MemorySegment z,
+                                   final long k) {
+    return z.getAtIndex(ValueLayout.JAVA_DOUBLE,k); }
+
+  /** Use the {@link SegmentAccumulator} method if there is one,
+   * otherwise read and add one element at a time.
+   */
+
+  static final Accumulator addAll (final Accumulator a,
+                                   final MemorySegment z) {
+    if (a instanceof final SegmentAccumulator s) {
+      return s.addAll(z); }
+    final long n = length(z);
+    for (long k=0;k<n;k++) { a.add(get(z,k)); }
+    return a; }
+
+  static final Accumulator add2All (final Accumulator a,
+                                    final MemorySegment z) {
+    if (a instanceof final SegmentAccumulator s) {
+      return s.add2All(z); }
+    final long n = length(z);
+    for (long k=0;k<n;k++) { a.add2(get(z,k)); }
+    return a; }
+
+  static final Accumulator addProducts (final Accumulator a,
+                                        final MemorySegment z0,
+                                        final MemorySegment z1) {
+    if (a instanceof final SegmentAccumulator s) {
+      return s.addProducts(z0,z1); }
+    final long n = length(z0);
+    for (long k=0;k<n;k++) { a.addProduct(get(z0,k),get(z1,k)); }
+    return a; }
+
+  //--------------------------------------------------------------
+
+  /** Returns <code>a</code> as a {@link FloatArrayAccumulator},
+   * if the input is <code>float</code> and it is one,
+   * otherwise null, and the caller should use the
+   * <code>double[]</code> inputs, which hold the same values.
+   */
+
+  final FloatArrayAccumulator floats (final Accumulator a) {
+    if (("float".equals(precision))
+      && (a instanceof final FloatArrayAccumulator f)) {
+      return f; }
+    return null; }
+
+  /** Bytes per input element: operations that read
+   * {@link #f0} and {@link #f1}, see {@link #usesFloats()}, with
+   * accumulators that take <code>float[]</code>, read floats;
+   * the rest read the <code>double[]</code> inputs, whatever the
+   * precision.
+   */
+
+  final int elementBytes (final Accumulator a) {
+    return
+      (usesFloats() && (null != floats(a)))
+      ? Float.BYTES
+      : Double.BYTES; }
+
+  /** Round to float, in both arrays. */
+
+  private static final void round (final double[] x,
+                                   final float[] f) {
+    for (int i=0;i<x.length;i++) {
+      f[i] = (float) x[i];
+      x[i] = f[i]; } }
+
+  //--------------------------------------------------------------
+
+  /**
+   * Override to return true if {@link #operation} reads
+   * {@link #m0} and {@link #m1}.
+   */
+
+  boolean mapped () { return false; }
+
+  /**
+   * Override to return true if {@link #operation} calls
+   * {@link #floats(Accumulator)}, and reads {@link #f0} and
+   * {@link #f1} when it gets an accumulator back.
+   */
+
+  boolean usesFloats () { return false; }
+
+  /**
+   * Number of <code>double[]</code> (or <code>float[]</code>)
+   * inputs {@link #operation} reads, for bytes per element.
+   * Override to return 2 for operations on pairs.
+   */
+
+  int inputs () { return 1; }
+
   /**
    * This is what is timed.
    */
@@ -110,60 +343,196 @@ public abstract class Base {
   //--------------------------------------------------------------
 
   /**
-   * Re-initialize the prngs with the same seeds for each
-   * <code>(accumulator,dim)</code> pair.
+   * Load the pool, or generate it, with the prngs' fixed seeds,
+   * so it's the same for every accumulator.
    */
   @Setup(Level.Trial)
   public final void trialSetup () {
-    gen = Generators.make(generator, dim);
     //exact = EFloatAccumulator.make();
     exact = BigFloatAccumulator.make();
     assert exact.isExact();
-    acc = Common.makeAccumulator(accumulator);
+    acc = makeAccumulator(accumulator);
+    if ("float".equals(precision)) {
+      f0 = new float[dim];
+      f1 = new float[dim]; }
+    if (mapped()) { map(); }
+    bytes = ((double) dim) * inputs() * elementBytes(acc);
+    loadPool();
+    next = 0;
+    if (accuracy) {
+      rPair = new int[RECORDS];
+      rTruth = new double[RECORDS];
+      rEstimate = new double[RECORDS];
+      rMaxResidual = new double[RECORDS];
+      nRecords = 0; }
+  }
+
+  /** Benchmark class, not the JMH generated subclass. */
+
+  private final String benchmarkName () {
+    Class<?> c = getClass();
+    while (c.getSimpleName().contains("_jmhType")) {
+      c = c.getSuperclass(); }
+    return c.getSimpleName(); }
+
+  private final void loadPool () {
+    final String key =
+      "nzqr-pool-" + Datasets.VERSION + "-" + Datasets.SEEDS
+      + "-" + generator + "-" + dim + "-" + precision + "-" + pool;
+    final File inputs = Datasets.file(key + ".f64");
+    double[][] x = Datasets.read(inputs,2*pool,dim);
+    if (null == x) {
+      gen = Generators.make(generator,dim);
+      x = new double[2*pool][];
+      for (int k=0;k<2*pool;k++) {
+        x[k] = (double[]) gen.next();
+        if (null != f0) { round(x[k],f0); } }
+      Datasets.write(inputs,x); }
+    pool0 = new double[pool][];
+    pool1 = new double[pool][];
+    for (int k=0;k<pool;k++) {
+      pool0[k] = x[2*k];
+      pool1[k] = x[2*k+1]; }
+    final File exacts =
+      Datasets.file(key + "-" + benchmarkName() + ".exact");
+    truths = Datasets.read(exacts,pool,-1);
+    if (null == truths) {
+      truths = new double[pool][];
+      for (int k=0;k<pool;k++) {
+        use(k);
+        truths[k] = operation(exact,x0,x1); }
+      Datasets.write(exacts,truths); } }
+
+  /** Make pair <code>k</code> the current inputs. */
+
+  private final void use (final int k) {
+    x0 = pool0[k];
+    x1 = pool1[k];
+    if (null != f0) { round(x0,f0); round(x1,f1); }
+    if (mapped()) {
+      MemorySegment.copy(x0,0,m0,ValueLayout.JAVA_DOUBLE,0L,dim);
+      MemorySegment.copy(x1,0,m1,ValueLayout.JAVA_DOUBLE,0L,dim); } }
+
+  /** Map a temporary file big enough for <code>x0</code> and
+   * <code>x1</code>; deleted when closed.
+   */
+
+  private final void map () {
+    final long bytes = ((long) dim) * Double.BYTES;
+    try {
+      channel = FileChannel.open(
+        Files.createTempFile("accumulate-", ".bin"),
+        StandardOpenOption.READ,
+        StandardOpenOption.WRITE,
+        StandardOpenOption.DELETE_ON_CLOSE);
+      arena = Arena.ofShared();
+      final MemorySegment m =
+        channel.map(FileChannel.MapMode.READ_WRITE,0L,2*bytes,arena);
+      m0 = m.asSlice(0L,bytes);
+      m1 = m.asSlice(bytes,bytes); }
+    catch (final IOException e) {
+      throw new UncheckedIOException(e); } }
+
+  @TearDown(Level.Trial)
+  public final void trialTeardown () {
+    if (null != arena) { arena.close(); arena = null; }
+    if (null != channel) {
+      try { channel.close(); }
+      catch (final IOException e) {
+        throw new UncheckedIOException(e); }
+      channel = null; }
+    if (accuracy) { writeAccuracy(); }
   }
 
-  @Setup(Level.Invocation)
-  public final void invocationSetup () {
-    x0 = (double[]) gen.next();
-    x1 = (double[]) gen.next();
-    truth = operation(exact, x0, x1);
+  @Setup(Level.Iteration)
+  public final void iterationSetup (final IterationParams params) {
+    pair = next;
+    use(pair);
+    truth = truths[pair];
+    next = (next + 1) % pool;
+    recording =
+      accuracy && (IterationType.MEASUREMENT == params.getType());
   }
 
-  @TearDown(Level.Invocation)
-  public final void invocationTeardown () {
+  @TearDown(Level.Iteration)
+  public final void iterationTeardown () {
+    if (recording && (nRecords < RECORDS)) { record(); }
     assert
       0.0 == exact.clear().addL1Distance(truth, p).doubleValue();
   }
 
-  // not needed while testing exact methods
-  //  @TearDown(Level.Trial)
-  //  public final void teardownTrial () {
-  //    //System.out.println("teardownTrial");
-  //    final int n = truth.size();
-  //    assert n == est.size();
-  //    final String aname = Classes.className(acc);
-  //    final String bname =
-  //      Classes.className(this).replace("_jmhType","");
-  //    final File parent = new File("output/" + bname);
-  //    parent.mkdirs();
-  //    final File f = new File(parent,
-  //      aname + "-" + generator + "-" + dim + "-" + now() + ".csv");
-  //    PrintWriter pw = null;
-  //    try {
-  //      pw = new PrintWriter(f);
-  //      pw.println("generator,benchmark,accumulator,dim,truth,est");
-  //      for (int i=0;i<n;i++) {
-  //        pw.println(
-  //          generator + "," + bname + "," + aname + "," + dim + ","
-  //            + truth.get(i) + "," + est.get(i)); } }
-  //    catch (final FileNotFoundException e) {
-  //      throw new RuntimeException(e); }
-  //    finally { if (null != pw) { pw.close(); } } }
+  //--------------------------------------------------------------
+  // accuracy
+  //--------------------------------------------------------------
+
+  private final void record () {
+    final int n = truth.length;
+    assert n == p.length;
+    double max = 0.0;
+    for (int i=0;i<n;i++) {
+      max = Math.max(max,Math.abs(p[i] - truth[i])); }
+    final int k = nRecords++;
+    rPair[k] = pair;
+    rTruth[k] = truth[n-1];
+    rEstimate[k] = p[n-1];
+    rMaxResidual[k] = max; }
+
+  /** Simple class name, with any mode after '_'. */
+
+  private final String accumulatorName () {
+    return
+      accumulator.substring(accumulator.lastIndexOf('.')+1)
+      .replace(':','_'); }
+
+  private final void writeAccuracy () {
+    final String bname = benchmarkName();
+    final String aname = accumulatorName();
+    final File parent = new File("output",bname);
+    parent.mkdirs();
+    final File f = new File(
+      parent,aname + "-" + generator + "-" + Defaults.now() + ".csv");
+    try (final PrintWriter pw =
+      new PrintWriter(new FileWriter(f))) {
+      pw.println(
+        "generator,benchmark,accumulator,dim,precision,pair,"
+        + "truth,est,residual,maxresidual");
+      for (int k=0;k<nRecords;k++) {
+        pw.println(
+          generator + "," + bname + "," + aname + "," + dim + ","
+          + precision + "," + rPair[k] + ","
+          + rTruth[k] + "," + rEstimate[k] + ","
+          + (rEstimate[k] - rTruth[k]) + "," + rMaxResidual[k]); } }
+    catch (final IOException e) {
+      throw new UncheckedIOException(e); } }
+
+  //--------------------------------------------------------------
+  // throughput counters
+  //--------------------------------------------------------------
+
+  /** Elements, and input bytes, at the benchmark's precision,
+   * as secondary results next to the primary score,
+   * so runs with different <code>dim</code> and numbers of
+   * inputs can be compared.
+   * JMH normalizes them by time like the primary result:
+   * per second in throughput mode, and time per element or
+   * byte in average time mode.
+   */
+
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  @State(Scope.Thread)
+  public static class Counters {
+    public double elements;
+    public double bytes;
+    @Setup(Level.Iteration)
+    public final void reset () { elements = 0.0; bytes = 0.0; } }
 
   @Benchmark
-  public final double[] bench (final Blackhole blackhole) {
+  public final double[] bench (final Blackhole blackhole,
+                               final Counters counters) {
     p = operation(acc, x0, x1);
     blackhole.consume(p);
+    counters.elements += dim;
+    counters.bytes += bytes;
     return p;
   }
 
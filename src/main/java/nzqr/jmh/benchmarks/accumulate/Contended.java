@@ -0,0 +1,142 @@
+package nzqr.jmh.benchmarks.accumulate;
+
+import java.util.concurrent.TimeUnit;
+
+import nzqr.java.accumulators.Accumulator;
+import nzqr.java.prng.Generator;
+import nzqr.java.prng.Generators;
+import nzqr.jmh.accumulators.StripedAccumulator;
+import nzqr.jmh.accumulators.ZhuHayesGCAccumulator;
+import nzqr.jmh.benchmarks.Results;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/** One exact accumulator shared by a group of threads:
+ * writers calling <code>add</code> and <code>addProduct</code>,
+ * one value at a time, and a reader polling
+ * <code>doubleValue()</code>.
+ * <p>
+ * <code>sharing=synchronized</code> is a
+ * {@link ZhuHayesGCAccumulator} with every call synchronized
+ * on it; <code>sharing=striped</code> is a
+ * {@link StripedAccumulator}.
+ * <p>
+ * Runs in throughput mode; JMH reports each method of the group
+ * separately, and their total.
+ *
+ * <pre>
+ * java -cp target\benchmarks.jar nzqr.jmh.benchmarks.accumulate.Contended
+ * </pre>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public class Contended {
+
+  //--------------------------------------------------------------
+
+  @State(Scope.Group)
+  public static class Shared {
+
+    @Param({ "striped", "synchronized", })
+    String sharing;
+
+    Accumulator acc;
+    boolean locked;
+
+    @Setup(Level.Trial)
+    public final void setup () {
+      locked = "synchronized".equals(sharing);
+      acc = switch (sharing) {
+        case "striped" -> StripedAccumulator.make();
+        case "synchronized" -> ZhuHayesGCAccumulator.make();
+        default -> throw new UnsupportedOperationException(sharing); }; }
+
+    // re-zero at each iteration, so the reader's cost doesn't
+    // depend on how long the writers have been running
+    @Setup(Level.Iteration)
+    public final void iterationSetup () { acc.clear(); }
+
+    final void add (final double z) {
+      if (locked) { synchronized (acc) { acc.add(z); } }
+      else { acc.add(z); } }
+
+    final void addProduct (final double z0,
+                           final double z1) {
+      if (locked) { synchronized (acc) { acc.addProduct(z0,z1); } }
+      else { acc.addProduct(z0,z1); } }
+
+    final double doubleValue () {
+      if (locked) { synchronized (acc) { return acc.doubleValue(); } }
+      return acc.doubleValue(); } }
+
+  //--------------------------------------------------------------
+  /** Each writer cycles through its own inputs. */
+
+  @State(Scope.Thread)
+  public static class Input {
+
+    @Param({ "uniform", })
+    String generator;
+
+    @Param({ "65536", })
+    int dim;
+
+    double[] x0;
+    double[] x1;
+    int next;
+
+    @Setup(Level.Trial)
+    public final void setup () {
+      final Generator gen = Generators.make(generator,dim);
+      x0 = (double[]) gen.next();
+      x1 = (double[]) gen.next();
+      next = 0; }
+
+    final int next () {
+      final int i = next;
+      next = (i + 1) % dim;
+      return i; } }
+
+  //--------------------------------------------------------------
+
+  @Benchmark
+  @Group("contended")
+  @GroupThreads(3)
+  public final void add (final Shared shared,
+                         final Input input) {
+    shared.add(input.x0[input.next()]); }
+
+  @Benchmark
+  @Group("contended")
+  @GroupThreads(3)
+  public final void addProduct (final Shared shared,
+                                final Input input) {
+    final int i = input.next();
+    shared.addProduct(input.x0[i],input.x1[i]); }
+
+  @Benchmark
+  @Group("contended")
+  @GroupThreads(1)
+  public final double read (final Shared shared) {
+    return shared.doubleValue(); }
+
+  //--------------------------------------------------------------
+
+  public static final void main (final String[] args)
+    throws RunnerException {
+    final Options options =
+      new OptionsBuilder()
+      .parent(Defaults.options("Contended","Contended"))
+      .mode(Mode.Throughput)
+      .timeUnit(TimeUnit.MICROSECONDS)
+      .build();
+    Results.write(options,new Runner(options).run()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
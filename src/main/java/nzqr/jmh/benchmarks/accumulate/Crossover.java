@@ -0,0 +1,117 @@
+package nzqr.jmh.benchmarks.accumulate;
+
+import java.util.concurrent.TimeUnit;
+
+import nzqr.java.accumulators.Accumulator;
+import nzqr.java.accumulators.BigFloatAccumulator;
+import nzqr.java.prng.Generator;
+import nzqr.java.prng.Generators;
+import nzqr.jmh.benchmarks.Results;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/** Exact sums of short to long vectors, to find the length
+ * where iFastSum stops beating the ZhuHayes accumulators,
+ * for each generator.
+ * That length is the threshold for
+ * {@link nzqr.jmh.accumulators.AdaptiveAccumulator}.
+ * <p>
+ * Short sums take too little time to generate new inputs for
+ * each invocation, so each trial generates a few arrays up
+ * front, and the benchmark cycles through them.
+ * Reported in ns/op; divide by <code>dim</code> for ns per
+ * element.
+ * <p>
+ * The largest <code>dim</code> holds 2 arrays of 1 GiB each,
+ * and the unbounded {@link nzqr.jmh.accumulators.IFastAccumulator}
+ * buffers about as much again, so it needs a heap of several
+ * GiB, or, to skip it, a shorter <code>dim</code> list:
+ * <pre>
+ * java -jar target\benchmarks.jar Crossover -jvmArgsAppend -Xmx8g
+ * java -jar target\benchmarks.jar Crossover -p dim=8,64,512,4096,32768,262144,2097152,16777216
+ * </pre>
+ *
+ * <pre>
+ * java -cp target\benchmarks.jar nzqr.jmh.benchmarks.accumulate.Crossover
+ * </pre>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+@State(Scope.Thread)
+public class Crossover {
+
+  //--------------------------------------------------------------
+
+  @Param({ "exponential", "finite", "gaussian", "laplace", "uniform", })
+  String generator;
+
+  @Param({
+    "nzqr.jmh.accumulators.AdaptiveAccumulator",
+    "nzqr.jmh.accumulators.IFastAccumulator",
+    "nzqr.java.accumulators.ZhuHayesAccumulator",
+    "nzqr.jmh.accumulators.ZhuHayesBranch",
+    "nzqr.jmh.accumulators.ZhuHayesGCAccumulator",
+  })
+  String accumulator;
+
+  /** Powers of 8, from 8 to <code>2<sup>27</sup></code>, about
+   * <code>10<sup>8</sup></code>.
+   */
+  @Param({
+    "8", "64", "512", "4096", "32768", "262144", "2097152",
+    "16777216", "134217728",
+  })
+  int dim;
+
+  /** At most this many doubles in all the arrays, unless that's
+   * fewer than 2 arrays.
+   */
+  private static final int TOTAL = 1 << 24;
+
+  double[][] data;
+  double[] truth;
+  int next;
+  Accumulator acc;
+
+  //--------------------------------------------------------------
+
+  @Setup(Level.Trial)
+  public final void trialSetup () {
+    final Generator gen = Generators.make(generator,dim);
+    final Accumulator exact = BigFloatAccumulator.make();
+    final int n = Math.max(2,Math.min(16,TOTAL/dim));
+    data = new double[n][];
+    truth = new double[n];
+    for (int i=0;i<n;i++) {
+      data[i] = (double[]) gen.next();
+      truth[i] = exact.clear().addAll(data[i]).doubleValue(); }
+    next = 0;
+    acc = Base.makeAccumulator(accumulator); }
+
+  @Benchmark
+  public final double bench () {
+    final int i = next;
+    next = (i + 1) % data.length;
+    final double p = acc.clear().addAll(data[i]).doubleValue();
+    assert truth[i] == p;
+    return p; }
+
+  //--------------------------------------------------------------
+
+  public static final void main (final String[] args)
+    throws RunnerException {
+    final Options options =
+      new OptionsBuilder()
+      .parent(Defaults.options("Crossover","Crossover"))
+      .timeUnit(TimeUnit.NANOSECONDS)
+      .build();
+    Results.write(options,new Runner(options).run()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
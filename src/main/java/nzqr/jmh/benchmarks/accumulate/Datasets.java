@@ -0,0 +1,139 @@
+package nzqr.jmh.benchmarks.accumulate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSource;
+
+import nzqr.java.prng.Generators;
+
+/** Binary cache files for pools of benchmark inputs and their
+ * exact results: <code>n</code> arrays of the same length,
+ * back to back, as native order doubles, with no header.
+ * <p>
+ * Files live in <code>java.io.tmpdir</code>, like
+ * {@link Streaming}'s data. A file whose length doesn't match
+ * is treated as missing. Names include {@link #VERSION} and
+ * {@link #SEEDS}, so files from other generators, seeds, or
+ * exact accumulators aren't read.
+ * <p>
+ * Not instantiable. Class slots/methods only.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+final class Datasets {
+
+  //--------------------------------------------------------------
+
+  /** Bump after changing how pools, or their exact results, are
+   * generated or computed here.
+   */
+  static final String VERSION = "v2";
+
+  /** {@link Generators#make(String,int)} has no seed argument;
+   * its fixed seeds, and generators, come with the nzqr library,
+   * so its version stands for them: the manifest
+   * <code>Implementation-Version</code>, or else the jar or
+   * directory name.
+   */
+  static final String SEEDS = seeds();
+
+  private static final String seeds () {
+    final String version =
+      Generators.class.getPackage().getImplementationVersion();
+    if (null != version) { return version; }
+    final CodeSource source =
+      Generators.class.getProtectionDomain().getCodeSource();
+    if (null == source) { return "unknown"; }
+    final String path = source.getLocation().getPath();
+    return
+      path.substring(path.lastIndexOf('/',path.length()-2)+1)
+      .replaceAll("\\.jar$|[^\\w.-]+",""); }
+
+  //--------------------------------------------------------------
+
+  static final File file (final String name) {
+    return new File(System.getProperty("java.io.tmpdir"),name); }
+
+  /** Returns <code>n</code> arrays, or null if the file is
+   * missing or has the wrong length.
+   * <code>length</code> may be -1, to get it from the file size.
+   */
+
+  static final double[][] read (final File f,
+                                final int n,
+                                final int length) {
+    if (! f.isFile()) { return null; }
+    final long bytes = f.length();
+    final long each = bytes / n;
+    if ((0L == bytes)
+      || (bytes != each * n)
+      || (0L != (each % Double.BYTES))
+      || ((0 <= length) && (each != ((long) length) * Double.BYTES))) {
+      return null; }
+    final int m = (int) (each / Double.BYTES);
+    final double[][] x = new double[n][m];
+    try (final FileChannel ch =
+           FileChannel.open(f.toPath(),StandardOpenOption.READ);
+         final Arena arena = Arena.ofConfined()) {
+      final MemorySegment s =
+        ch.map(FileChannel.MapMode.READ_ONLY,0L,bytes,arena);
+      for (int k=0;k<n;k++) {
+        MemorySegment.copy(
+          s,ValueLayout.JAVA_DOUBLE,k*each,x[k],0,m); } }
+    catch (final IOException e) {
+      throw new UncheckedIOException(e); }
+    return x; }
+
+  /** Write to a temporary file, then rename, so concurrent
+   * forks never read a partial file.
+   */
+
+  static final void write (final File f,
+                           final double[][] x) {
+    final int m = x[0].length;
+    final long each = ((long) m) * Double.BYTES;
+    try {
+      final Path tmp = Files.createTempFile(
+        f.getParentFile().toPath(),f.getName(),".tmp");
+      try (final FileChannel ch = FileChannel.open(
+             tmp,
+             StandardOpenOption.READ,
+             StandardOpenOption.WRITE,
+             StandardOpenOption.TRUNCATE_EXISTING);
+           final Arena arena = Arena.ofConfined()) {
+        final MemorySegment s =
+          ch.map(FileChannel.MapMode.READ_WRITE,0L,x.length*each,arena);
+        for (int k=0;k<x.length;k++) {
+          assert m == x[k].length;
+          MemorySegment.copy(
+            x[k],0,s,ValueLayout.JAVA_DOUBLE,k*each,m); }
+        s.force(); }
+      Files.move(
+        tmp,f.toPath(),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE); }
+    catch (final IOException e) {
+      throw new UncheckedIOException(e); } }
+
+  //--------------------------------------------------------------
+  // disable constructor
+  //--------------------------------------------------------------
+
+  private Datasets () {
+    throw new UnsupportedOperationException(
+      "can't instantiate " + getClass()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
@@ -0,0 +1,104 @@
+package nzqr.jmh.benchmarks.accumulate;
+
+import java.util.concurrent.ForkJoinPool;
+
+import nzqr.java.accumulators.Accumulator;
+import nzqr.java.accumulators.BigFloatAccumulator;
+import nzqr.java.prng.Generator;
+import nzqr.java.prng.Generators;
+import nzqr.java.test.Common;
+import nzqr.jmh.accumulators.ForkJoinAccumulator;
+import nzqr.jmh.accumulators.MergeableAccumulator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Speedup of exact sums and dots vs number of cores,
+ * using {@link ForkJoinAccumulator} with a pool of
+ * <code>parallelism</code> worker threads.
+ * <p>
+ * Speedup is the ratio of the <code>parallelism=1</code> time
+ * to the time for each other value.
+ * <p>
+ * Unlike {@link Base}, the inputs are generated once per trial,
+ * so the timed region isn't preceded by a cold cache refill of
+ * 2 large arrays on one thread.
+ *
+ * <pre>
+ * java -cp target\benchmarks.jar nzqr.jmh.benchmarks.accumulate.ForkJoinTotals
+ * </pre>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-16
+ */
+
+@SuppressWarnings("unchecked")
+@State(Scope.Thread)
+public class ForkJoinTotals {
+
+  //--------------------------------------------------------------
+
+  @Param({ "uniform", })
+  String generator;
+
+  @Param({
+    "nzqr.jmh.accumulators.IFastAccumulator",
+    "nzqr.jmh.accumulators.ZhuHayesBranch",
+    "nzqr.jmh.accumulators.ZhuHayesGCAccumulator",
+  })
+  String accumulator;
+
+  @Param({ "1", "2", "4", "8", "16", "32", })
+  int parallelism;
+
+  @Param({ "sum", "dot", })
+  String operation;
+
+  @Param({ "33554433", })
+  int dim;
+
+  ForkJoinPool pool;
+  ForkJoinAccumulator acc;
+  double[] x0;
+  double[] x1;
+  double truth;
+
+  //--------------------------------------------------------------
+
+  private final double operation (final Accumulator ac) {
+    return switch (operation) {
+      case "sum" -> ac.clear().addAll(x0).doubleValue();
+      case "dot" -> ac.clear().addProducts(x0,x1).doubleValue();
+      default -> throw new UnsupportedOperationException(operation); }; }
+
+  //--------------------------------------------------------------
+
+  @Setup(Level.Trial)
+  public final void trialSetup () {
+    final Generator gen = Generators.make(generator, dim);
+    x0 = (double[]) gen.next();
+    x1 = (double[]) gen.next();
+    truth = operation(BigFloatAccumulator.make());
+    pool = new ForkJoinPool(parallelism);
+    acc = ForkJoinAccumulator.make(
+      (MergeableAccumulator) Common.makeAccumulator(accumulator),
+      pool); }
+
+  @TearDown(Level.Trial)
+  public final void trialTeardown () {
+    pool.shutdown(); }
+
+  @Benchmark
+  public final double bench (final Blackhole blackhole) {
+    final double p = operation(acc);
+    assert truth == p;
+    blackhole.consume(p);
+    return p; }
+
+  //--------------------------------------------------------------
+
+  public static final void main (final String[] args)  {
+    Defaults.run("ForkJoinTotals"); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
@@ -1,22 +1,31 @@
 package nzqr.jmh.benchmarks.accumulate;
 
 import nzqr.java.accumulators.Accumulator;
+import nzqr.jmh.accumulators.FloatArrayAccumulator;
 
 /** <pre>
  * java -cp target\benchmarks.jar nzqr.jmh.PartialL1Distances
  * </pre>
  * @author palisades dot lakes at gmail dot com
- * @version 2019-07-27
+ * @version 2026-10-16
  */
 
 @SuppressWarnings("unchecked")
 public class PartialL1Distances extends Base {
 
+  @Override
+  final int inputs () { return 2; }
+
+  @Override
+  final boolean usesFloats () { return true; }
+
   @Override
   public final double[] operation (final Accumulator ac,
                                    final double[] z0,
                                    final double[] z1) {
-    return ac.clear().partialL1Distances(z0,z1); }
+    final FloatArrayAccumulator f = floats(ac.clear());
+    if (null != f) { return f.partialL1Distances(f0,f1); }
+    return ac.partialL1Distances(z0,z1); }
 
   public static final void main (final String[] args)  {
     Defaults.run("PartialL1Distances"); } }
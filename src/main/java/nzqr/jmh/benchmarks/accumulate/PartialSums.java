@@ -1,22 +1,28 @@
 package nzqr.jmh.benchmarks.accumulate;
 
 import nzqr.java.accumulators.Accumulator;
+import nzqr.jmh.accumulators.FloatArrayAccumulator;
 
 /** <pre>
  * java -cp target\benchmarks.jar nzqr.jmh.PartialSums
  * </pre>
  * @author palisades dot lakes at gmail dot com
- * @version 2019-07-27
+ * @version 2026-10-16
  */
 
 @SuppressWarnings("unchecked")
 public class PartialSums extends Base {
 
+  @Override
+  final boolean usesFloats () { return true; }
+
   @Override
   public final double[] operation (final Accumulator ac,
                                    final double[] z0,
                                    final double[] z1) {
-    return ac.clear().partialSums(z0); }
+    final FloatArrayAccumulator f = floats(ac.clear());
+    if (null != f) { return f.partialSums(f0); }
+    return ac.partialSums(z0); }
 
   public static final void main (final String[] args)  {
     Defaults.run("PartialSums"); } }
@@ -0,0 +1,75 @@
+package nzqr.jmh.benchmarks.accumulate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import nzqr.jmh.benchmarks.Results;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/** Run an accumulate benchmark with 1, 2, 4, ... up to
+ * <code>n</code> concurrent threads, each with its own inputs
+ * and accumulator, for every accumulator,
+ * to see how they compete for memory bandwidth, cache,
+ * and allocation.
+ * <p>
+ * Each thread count is a separate run, in throughput mode,
+ * which JMH reports summed over threads,
+ * and in average time mode, the per thread latency.
+ * Results go to
+ * <code>output/Scaling-&lt;benchmark&gt;-&lt;threads&gt;-&lt;model&gt;-&lt;timestamp&gt;.csv</code>.
+ * <p>
+ * Arguments are the benchmark, default <code>TotalSum</code>,
+ * and the maximum number of threads, default the number of
+ * available processors:
+ *
+ * <pre>
+ * java -cp target\benchmarks.jar nzqr.jmh.benchmarks.accumulate.Scaling TotalDot 16
+ * </pre>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class Scaling {
+
+  //--------------------------------------------------------------
+  /** Powers of 2 less than <code>n</code>, and <code>n</code>.
+   */
+
+  public static final List<Integer> threadCounts (final int n) {
+    final List<Integer> counts = new ArrayList<>();
+    for (int t=1;t<n;t*=2) { counts.add(Integer.valueOf(t)); }
+    counts.add(Integer.valueOf(n));
+    return counts; }
+
+  //--------------------------------------------------------------
+
+  public static final void main (final String[] args)
+    throws RunnerException {
+    final String benchmark = (0 < args.length) ? args[0] : "TotalSum";
+    final int n =
+      (1 < args.length)
+      ? Integer.parseInt(args[1])
+      : Runtime.getRuntime().availableProcessors();
+    if (0 >= n) {
+      throw new IllegalArgumentException("threads " + n + " <= 0"); }
+    for (final Integer t : threadCounts(n)) {
+      final Options options =
+        new OptionsBuilder()
+        .parent(
+          Defaults.options(
+            "Scaling-" + benchmark + "-" + t,
+            benchmark,
+            t.intValue()))
+        .mode(Mode.Throughput)
+        .mode(Mode.AverageTime)
+        .build();
+      Results.write(options,new Runner(options).run()); } }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
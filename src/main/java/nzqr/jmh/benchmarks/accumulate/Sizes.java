@@ -0,0 +1,270 @@
+package nzqr.jmh.benchmarks.accumulate;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import nzqr.java.SystemInfo;
+import nzqr.java.accumulators.Accumulator;
+import nzqr.jmh.benchmarks.Results;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/** Run an accumulate benchmark over a sweep of sizes,
+ * from about a thousand elements, in L1, up to
+ * {@link #LLC_MULTIPLE} times the last level cache,
+ * to see where each accumulator falls off as its inputs
+ * (and its own state, eg, the ZhuHayes bins) move from L1 to
+ * L2 to the last level cache to memory.
+ * <p>
+ * Each iteration reuses one input pair, so inputs smaller than
+ * a cache stay in it, after the first call.
+ * <p>
+ * Sizes are <code>2<sup>k</sup>-1</code>, like the default
+ * <code>dim</code>. Each size is a separate run, with a pool
+ * small enough that the inputs fit in the heap.
+ * Results for each size go to
+ * <code>output/Sizes-&lt;benchmark&gt;-&lt;dim&gt;-&lt;model&gt;-&lt;timestamp&gt;.csv</code>,
+ * and a summary of all of them, with ns per element,
+ * input bytes per ns, and the smallest cache level that holds
+ * the inputs, to
+ * <code>output/Sizes-&lt;benchmark&gt;-&lt;model&gt;-&lt;timestamp&gt;.csv</code>.
+ * <p>
+ * Cache sizes are read from
+ * <code>/sys/devices/system/cpu/cpu0/cache</code>, on Linux;
+ * elsewhere, or to override, set
+ * <code>-Dnzqr.llc=&lt;bytes&gt;</code>.
+ * <p>
+ * Arguments are the benchmark, default <code>TotalSum</code>,
+ * and, optionally, the accumulators, default all of them:
+ *
+ * <pre>
+ * java -cp target\benchmarks.jar nzqr.jmh.benchmarks.accumulate.Sizes TotalDot nzqr.jmh.accumulators.DoubleFmaVectorAccumulator nzqr.jmh.accumulators.ZhuHayesBranch
+ * </pre>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class Sizes {
+
+  //--------------------------------------------------------------
+
+  /** Smallest size, in elements. */
+  public static final int MIN_DIM = (1 << 10) - 1;
+
+  /** Largest inputs, as a multiple of the last level cache. */
+  public static final int LLC_MULTIPLE = 4;
+
+  /** Pool sizes are cut so the pool holds at most this many
+   * elements.
+   */
+  private static final long POOL_ELEMENTS = 1L << 27;
+
+  /** Used if there's no cache information. */
+  private static final long DEFAULT_LLC = 32L << 20;
+
+  //--------------------------------------------------------------
+  // cache sizes
+  //--------------------------------------------------------------
+
+  private static final long parseSize (final String s) {
+    final String t = s.trim();
+    final char c = Character.toUpperCase(t.charAt(t.length()-1));
+    final String digits = t.substring(0,t.length()-1);
+    return switch (c) {
+      case 'K' -> Long.parseLong(digits) << 10;
+      case 'M' -> Long.parseLong(digits) << 20;
+      case 'G' -> Long.parseLong(digits) << 30;
+      default -> Long.parseLong(t); }; }
+
+  private static final String read (final File f)
+    throws IOException {
+    return Files.readString(f.toPath()).trim(); }
+
+  /** Data and unified cache sizes in bytes, by level,
+   * for one core, or just the last level, from
+   * <code>nzqr.llc</code>, or {@link #DEFAULT_LLC}.
+   */
+
+  public static final SortedMap<Integer,Long> caches () {
+    final SortedMap<Integer,Long> caches = new TreeMap<>();
+    final File[] dirs =
+      new File("/sys/devices/system/cpu/cpu0/cache")
+      .listFiles((d,name) -> name.startsWith("index"));
+    if (null != dirs) {
+      try {
+        for (final File d : dirs) {
+          if (! "Instruction".equals(read(new File(d,"type")))) {
+            caches.put(
+              Integer.valueOf(read(new File(d,"level"))),
+              Long.valueOf(parseSize(read(new File(d,"size"))))); } } }
+      catch (final IOException | RuntimeException e) {
+        caches.clear(); } }
+    final String llc = System.getProperty("nzqr.llc");
+    if (null != llc) {
+      final int last =
+        caches.isEmpty() ? 3 : caches.lastKey().intValue();
+      caches.put(Integer.valueOf(last),Long.valueOf(parseSize(llc))); }
+    if (caches.isEmpty()) {
+      caches.put(Integer.valueOf(3),Long.valueOf(DEFAULT_LLC)); }
+    return caches; }
+
+  /** <code>L1</code>, <code>L2</code>, ... for the smallest
+   * cache at least <code>bytes</code> big, or <code>DRAM</code>.
+   */
+
+  public static final String level (final Map<Integer,Long> caches,
+                                    final long bytes) {
+    for (final Map.Entry<Integer,Long> e : caches.entrySet()) {
+      if (bytes <= e.getValue().longValue()) {
+        return "L" + e.getKey(); } }
+    return "DRAM"; }
+
+  //--------------------------------------------------------------
+
+  /** <code>2<sup>k</sup>-1</code>, from {@link #MIN_DIM}, up to
+   * the first whose inputs are at least
+   * <code>maxBytes</code>.
+   */
+
+  public static final List<Integer> dims (final long bytesPerElement,
+                                          final long maxBytes) {
+    final List<Integer> dims = new ArrayList<>();
+    for (long n=MIN_DIM+1;n<=(1L<<30);n*=2) {
+      dims.add(Integer.valueOf((int) (n-1)));
+      if (maxBytes <= (n-1)*bytesPerElement) { break; } }
+    return dims; }
+
+  private static final int pool (final int dim) {
+    return (int) Math.max(1L,Math.min(8L,POOL_ELEMENTS/(2L*dim))); }
+
+  private static final Base benchmark (final String benchmark) {
+    try {
+      return (Base)
+        Class.forName(Sizes.class.getPackageName() + "." + benchmark)
+        .getDeclaredConstructor()
+        .newInstance(); }
+    catch (final ReflectiveOperationException e) {
+      throw new IllegalArgumentException(benchmark,e); } }
+
+  /** The benchmark, with the <code>String</code> params of a run,
+   * eg, <code>precision</code> and <code>kernel</code>, set, for
+   * {@link Base#elementBytes(Accumulator)}.
+   */
+
+  private static final Base benchmark (final String benchmark,
+                                       final BenchmarkParams params) {
+    final Base b = benchmark(benchmark);
+    try {
+      for (Class<?> c = b.getClass();
+        Base.class.isAssignableFrom(c);
+        c = c.getSuperclass()) {
+        for (final Field field : c.getDeclaredFields()) {
+          final String value = params.getParam(field.getName());
+          if ((null != value) && (String.class == field.getType())) {
+            field.set(b,value); } } } }
+    catch (final IllegalAccessException e) {
+      throw new IllegalArgumentException(benchmark,e); }
+    return b; }
+
+  //--------------------------------------------------------------
+
+  private static final String param (final BenchmarkParams params,
+                                     final String key) {
+    final String value = params.getParam(key);
+    return (null == value) ? "" : value; }
+
+  private static final void summarize (final String benchmark,
+                                       final int inputs,
+                                       final Map<Integer,Long> caches,
+                                       final Collection<RunResult> results) {
+    final File parent = new File("output");
+    parent.mkdirs();
+    final File f =
+      new File(parent,
+               "Sizes-" + benchmark
+               + "-" + SystemInfo.model()
+               + "-" + Defaults.now()
+               + ".csv");
+    try (final PrintWriter pw = new PrintWriter(new FileWriter(f))) {
+      pw.println(
+        "benchmark,accumulator,kernel,generator,precision,dim,"
+        + "bytes,level,ns,error,nsPerElement,bytesPerNs");
+      for (final RunResult r : results) {
+        final BenchmarkParams params = r.getParams();
+        final int dim = Integer.parseInt(params.getParam("dim"));
+        final String precision = params.getParam("precision");
+        final long bytes =
+          ((long) dim) * inputs
+          * benchmark(benchmark,params).elementBytes(
+            Base.makeAccumulator(params.getParam("accumulator")));
+        final double ns = r.getPrimaryResult().getScore();
+        pw.println(
+          benchmark + ","
+          + param(params,"accumulator") + ","
+          + param(params,"kernel") + ","
+          + param(params,"generator") + ","
+          + precision + ","
+          + dim + ","
+          + bytes + ","
+          + level(caches,bytes) + ","
+          + ns + ","
+          + r.getPrimaryResult().getScoreError() + ","
+          + (ns / dim) + ","
+          + (bytes / ns)); } }
+    catch (final IOException e) {
+      throw new UncheckedIOException(e); } }
+
+  //--------------------------------------------------------------
+
+  public static final void main (final String[] args)
+    throws RunnerException {
+    final String benchmark = (0 < args.length) ? args[0] : "TotalSum";
+    final String[] accumulators =
+      Arrays.copyOfRange(args,Math.min(1,args.length),args.length);
+    final int inputs = benchmark(benchmark).inputs();
+    final SortedMap<Integer,Long> caches = caches();
+    final long llc = caches.get(caches.lastKey()).longValue();
+    final List<RunResult> results = new ArrayList<>();
+    // the largest sizes, for double inputs; float inputs reach
+    // half as far
+    for (final Integer dim :
+      dims(((long) inputs)*Double.BYTES,LLC_MULTIPLE*llc)) {
+      final ChainedOptionsBuilder builder =
+        new OptionsBuilder()
+        .parent(
+          Defaults.options(
+            "Sizes-" + benchmark + "-" + dim,
+            benchmark))
+        .timeUnit(TimeUnit.NANOSECONDS)
+        .param("dim",dim.toString())
+        .param("pool",Integer.toString(pool(dim.intValue())));
+      if (0 < accumulators.length) {
+        builder.param("accumulator",accumulators); }
+      final Options options = builder.build();
+      final Collection<RunResult> run = new Runner(options).run();
+      Results.write(options,run);
+      results.addAll(run); }
+    summarize(benchmark,inputs,caches,results); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
@@ -0,0 +1,262 @@
+package nzqr.jmh.benchmarks.accumulate;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import nzqr.java.SystemInfo;
+import nzqr.java.accumulators.Accumulator;
+import nzqr.java.accumulators.BigFloatAccumulator;
+import nzqr.java.prng.Generator;
+import nzqr.java.prng.Generators;
+import nzqr.jmh.benchmarks.Results;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/** Out-of-core sums: stream a binary file of <code>dim</code>
+ * native order doubles through an accumulator,
+ * <code>chunk</code> elements at a time, either from a
+ * memory-mapped segment (<code>io=mmap</code>) or with
+ * positional {@link FileChannel} reads into a direct buffer
+ * (<code>io=channel</code>).
+ * <p>
+ * Runs in throughput mode; the <code>gigabytes</code> secondary
+ * result is GB/s.
+ * The residual, estimate minus exact sum, and the same in ulps
+ * of the exact sum, are appended to
+ * <code>output/Streaming-residuals-&lt;model&gt;.csv</code>
+ * at the end of each trial.
+ * <p>
+ * The data file, and its exact sum, are cached in
+ * <code>java.io.tmpdir</code>, keyed by generator and
+ * <code>dim</code>, since generating several GB takes much
+ * longer than summing it.
+ * Unless the file is larger than physical memory, after the
+ * first iteration reads come from the page cache, so this
+ * measures compute vs memory bandwidth; to include the disk,
+ * use a bigger <code>dim</code> or drop caches between runs.
+ *
+ * <pre>
+ * java -cp target\benchmarks.jar nzqr.jmh.benchmarks.accumulate.Streaming
+ * </pre>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+@State(Scope.Thread)
+public class Streaming {
+
+  //--------------------------------------------------------------
+
+  @Param({ "uniform", })
+  String generator;
+
+  @Param({
+    "nzqr.java.accumulators.BigFloatAccumulator",
+    "nzqr.jmh.accumulators.DoubleAccumulator",
+    "nzqr.jmh.accumulators.DoubleFmaAccumulator",
+    // unbounded buffers every element: out of memory at dim
+    "nzqr.jmh.accumulators.IFastAccumulator:bounded",
+    "nzqr.java.accumulators.KahanAccumulator",
+    "nzqr.jmh.accumulators.KahanFmaAccumulator",
+    "nzqr.jmh.accumulators.ZhuHayesBranch",
+    "nzqr.jmh.accumulators.ZhuHayesGCAccumulator",
+    "nzqr.jmh.accumulators.ZhuHayesGCAccumulator:noalloc",
+  })
+  String accumulator;
+
+  @Param({ "mmap", "channel", })
+  String io;
+
+  /** 2GB of doubles. */
+  @Param({ "268435456", })
+  long dim;
+
+  /** Elements per read. */
+  @Param({ "1048576", })
+  int chunk;
+
+  /** Elements per generated array when writing the file. */
+  private static final int GENERATE = 1 << 20;
+
+  Accumulator acc;
+  double truth;
+  double estimate;
+
+  FileChannel channel;
+  Arena arena;
+  // io=mmap
+  MemorySegment mapped;
+  // io=channel
+  ByteBuffer buffer;
+  MemorySegment buffered;
+
+  //--------------------------------------------------------------
+  /** Bytes streamed, reported as GB/s in throughput mode. */
+
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  @State(Scope.Thread)
+  public static class Counters {
+    public double gigabytes;
+    @Setup(Level.Iteration)
+    public final void reset () { gigabytes = 0.0; } }
+
+  //--------------------------------------------------------------
+  // data file
+  //--------------------------------------------------------------
+
+  private final File dataFile () {
+    return new File(
+      System.getProperty("java.io.tmpdir"),
+      "nzqr-" + generator + "-" + dim + ".f64"); }
+
+  private static final File truthFile (final File data) {
+    return new File(data.getPath() + ".exact"); }
+
+  /** Write <code>dim</code> generated doubles to
+   * <code>data</code>, and their exact sum, as a hex string,
+   * to {@link #truthFile(File)}.
+   */
+
+  private final void generate (final File data)
+    throws IOException {
+    final Generator gen = Generators.make(generator,GENERATE);
+    final Accumulator exact = BigFloatAccumulator.make();
+    final ByteBuffer b =
+      ByteBuffer.allocateDirect(GENERATE*Double.BYTES)
+      .order(ByteOrder.nativeOrder());
+    try (final FileChannel ch = FileChannel.open(
+      data.toPath(),
+      StandardOpenOption.CREATE,
+      StandardOpenOption.TRUNCATE_EXISTING,
+      StandardOpenOption.WRITE)) {
+      for (long k=0;k<dim;k+=GENERATE) {
+        final int n = (int) Math.min(GENERATE,dim-k);
+        final double[] x = (double[]) gen.next();
+        for (int i=0;i<n;i++) { exact.add(x[i]); }
+        b.clear();
+        b.asDoubleBuffer().put(x,0,n);
+        b.limit(n*Double.BYTES);
+        while (b.hasRemaining()) { ch.write(b); } } }
+    Files.writeString(
+      truthFile(data).toPath(),
+      Double.toHexString(exact.doubleValue())); }
+
+  private final double dataTruth () throws IOException {
+    final File data = dataFile();
+    final File exact = truthFile(data);
+    if ((! exact.exists())
+      || (data.length() != dim*Double.BYTES)) {
+      generate(data); }
+    return Double.parseDouble(
+      Files.readString(exact.toPath()).trim()); }
+
+  //--------------------------------------------------------------
+
+  @Setup(Level.Trial)
+  public final void trialSetup () throws IOException {
+    truth = dataTruth();
+    acc = Base.makeAccumulator(accumulator);
+    final Path path = dataFile().toPath();
+    channel = FileChannel.open(path,StandardOpenOption.READ);
+    arena = Arena.ofShared();
+    switch (io) {
+      case "mmap" ->
+        mapped = channel.map(
+          FileChannel.MapMode.READ_ONLY,0L,channel.size(),arena);
+      case "channel" -> {
+        buffer =
+          ByteBuffer.allocateDirect(chunk*Double.BYTES)
+          .order(ByteOrder.nativeOrder());
+        buffered = MemorySegment.ofBuffer(buffer); }
+      default -> throw new UnsupportedOperationException(io); } }
+
+  @TearDown(Level.Trial)
+  public final void trialTeardown () throws IOException {
+    arena.close();
+    channel.close();
+    final File parent = new File("output");
+    parent.mkdirs();
+    final File csv =
+      new File(parent,
+        "Streaming-residuals-" + SystemInfo.model() + ".csv");
+    final boolean header = ! csv.exists();
+    try (final PrintWriter pw =
+      new PrintWriter(new FileWriter(csv,true))) {
+      if (header) {
+        pw.println(
+          "generator,accumulator,io,dim,chunk,"
+          + "truth,estimate,residual,ulps"); }
+      final double residual = estimate - truth;
+      pw.println(
+        generator + "," + accumulator + "," + io + ","
+        + dim + "," + chunk + ","
+        + Double.toHexString(truth) + ","
+        + Double.toHexString(estimate) + ","
+        + residual + "," + (residual / Math.ulp(truth))); } }
+
+  //--------------------------------------------------------------
+
+  private final void mmap () {
+    final long bytes = mapped.byteSize();
+    final long step = ((long) chunk) * Double.BYTES;
+    for (long k=0;k<bytes;k+=step) {
+      Base.addAll(acc,mapped.asSlice(k,Math.min(step,bytes-k))); } }
+
+  private final void channel () {
+    final long bytes = dim * Double.BYTES;
+    final long step = ((long) chunk) * Double.BYTES;
+    try {
+      for (long k=0;k<bytes;k+=step) {
+        final int n = (int) Math.min(step,bytes-k);
+        buffer.clear().limit(n);
+        while (buffer.hasRemaining()) {
+          if (0 > channel.read(buffer,k+buffer.position())) {
+            throw new IllegalStateException(
+              "unexpected end of " + dataFile()); } }
+        Base.addAll(acc,buffered.asSlice(0L,n)); } }
+    catch (final IOException e) {
+      throw new UncheckedIOException(e); } }
+
+  @Benchmark
+  public final double bench (final Counters counters) {
+    acc.clear();
+    switch (io) {
+      case "mmap" -> mmap();
+      case "channel" -> channel();
+      default -> throw new UnsupportedOperationException(io); }
+    estimate = acc.doubleValue();
+    counters.gigabytes += dim * Double.BYTES * 1.0e-9;
+    assert (! acc.isExact()) || (truth == estimate);
+    return estimate; }
+
+  //--------------------------------------------------------------
+
+  public static final void main (final String[] args)
+    throws RunnerException {
+    final Options options =
+      new OptionsBuilder()
+      .parent(Defaults.options("Streaming","Streaming"))
+      .mode(Mode.Throughput)
+      .timeUnit(TimeUnit.SECONDS)
+      .build();
+    Results.write(options,new Runner(options).run()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
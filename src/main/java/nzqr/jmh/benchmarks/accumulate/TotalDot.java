@@ -1,22 +1,56 @@
 package nzqr.jmh.benchmarks.accumulate;
 
 import nzqr.java.accumulators.Accumulator;
+import nzqr.jmh.accumulators.FloatArrayAccumulator;
+import org.openjdk.jmh.annotations.Param;
 
 /** <pre>
  * j nzqr.jmh.TotalDot
  * </pre>
  * @author palisades dot lakes at gmail dot com
- * @version 2019-07-27
+ * @version 2026-10-16
  */
 
 public class TotalDot extends Base {
 
+  @Override
+  final int inputs () { return 2; }
+
+  /** <code>bulk</code> calls <code>addProducts</code>, which may be
+   * vectorized, on <code>float[]</code> if
+   * <code>precision=float</code> and the accumulator takes them;
+   * <code>scalar</code> calls <code>addProduct</code>
+   * one element at a time; <code>mapped</code> calls
+   * <code>addProducts</code> on the same values in a mapped file.
+   */
+  @Param({ "bulk", "scalar", "mapped", })
+  String kernel;
+
+  @Override
+  final boolean mapped () { return "mapped".equals(kernel); }
+
+  @Override
+  final boolean usesFloats () { return "bulk".equals(kernel); }
+
   @Override
   public final double[] operation (final Accumulator ac,
                                    final double[] z0,
                                    final double[] z1) {
-    return new double[]
-      { ac.clear().addProducts(z0,z1).doubleValue() }; }
+    return switch (kernel) {
+      case "bulk" -> {
+        final FloatArrayAccumulator f = floats(ac.clear());
+        yield new double[] {
+          (null == f)
+          ? ac.addProducts(z0,z1).doubleValue()
+          : f.addProducts(f0,f1).doubleValue() }; }
+      case "scalar" -> {
+        ac.clear();
+        final int n = z0.length;
+        for (int i=0;i<n;i++) { ac.addProduct(z0[i],z1[i]); }
+        yield new double[] { ac.doubleValue() }; }
+      case "mapped" -> new double[]
+        { addProducts(ac.clear(),m0,m1).doubleValue() };
+      default -> throw new UnsupportedOperationException(kernel); }; }
 
   public static final void main (final String[] args)  {
     Defaults.run("TotalDot"); } }
@@ -6,11 +6,14 @@ import nzqr.java.accumulators.Accumulator;
  * j nzqr.jmh.TotalL1Distance
  * </pre>
  * @author palisades dot lakes at gmail dot com
- * @version 2019-08-19
+ * @version 2026-10-16
  */
 
 public class TotalL1Distance extends Base {
 
+  @Override
+  final int inputs () { return 2; }
+
   @Override
   public final double[] operation (final Accumulator ac,
                                    final double[] z0,
@@ -6,11 +6,14 @@ import nzqr.java.accumulators.Accumulator;
  * j nzqr.jmh.TotalL2Distance
  * </pre>
  * @author palisades dot lakes at gmail dot com
- * @version 2019-10-10
+ * @version 2026-10-16
  */
 
 public class TotalL2Distance extends Base {
 
+  @Override
+  final int inputs () { return 2; }
+
   @Override
   public final double[] operation (final Accumulator ac,
                                    final double[] z0,
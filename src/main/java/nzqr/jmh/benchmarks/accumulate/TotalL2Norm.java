@@ -1,22 +1,47 @@
 package nzqr.jmh.benchmarks.accumulate;
 
 import nzqr.java.accumulators.Accumulator;
+import nzqr.jmh.accumulators.FloatArrayAccumulator;
+import org.openjdk.jmh.annotations.Param;
 
 /** <pre>
  * java -cp target\benchmarks.jar nzqr.jmh.TotalL2Norm
  * </pre>
  * @author palisades dot lakes at gmail dot com
- * @version 2019-07-27
+ * @version 2026-10-16
  */
 
 public class TotalL2Norm extends Base {
 
+  /** <code>bulk</code> calls <code>add2All</code>,
+   * on <code>float[]</code> if <code>precision=float</code>
+   * and the accumulator takes them;
+   * <code>mapped</code> calls <code>add2All</code> on the same
+   * values in a mapped file.
+   */
+  @Param({ "bulk", "mapped", })
+  String kernel;
+
+  @Override
+  final boolean mapped () { return "mapped".equals(kernel); }
+
+  @Override
+  final boolean usesFloats () { return "bulk".equals(kernel); }
+
   @Override
   public final double[] operation (final Accumulator ac,
                                    final double[] z0,
                                    final double[] z1) {
-    return new double[]
-      {  ac.clear().add2All(z0).doubleValue() }; }
+    return switch (kernel) {
+      case "bulk" -> {
+        final FloatArrayAccumulator f = floats(ac.clear());
+        yield new double[] {
+          (null == f)
+          ? ac.add2All(z0).doubleValue()
+          : f.add2All(f0).doubleValue() }; }
+      case "mapped" -> new double[]
+        { add2All(ac.clear(),m0).doubleValue() };
+      default -> throw new UnsupportedOperationException(kernel); }; }
 
   public static final void main (final String[] args)  {
     Defaults.run("TotalL2Norm"); } }
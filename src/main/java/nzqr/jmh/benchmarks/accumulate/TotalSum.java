@@ -1,22 +1,52 @@
 package nzqr.jmh.benchmarks.accumulate;
 
 import nzqr.java.accumulators.Accumulator;
+import nzqr.jmh.accumulators.FloatArrayAccumulator;
+import org.openjdk.jmh.annotations.Param;
 
 /** <pre>
  * java -cp target\benchmarks.jar nzqr.jmh.benchmarks.accumulate.TotalSum
  * </pre>
  * @author palisades dot lakes at gmail dot com
- * @version 2019-07-27
+ * @version 2026-10-16
  */
 
 public class TotalSum extends Base {
 
+  /** <code>bulk</code> calls <code>addAll</code>, which may be
+   * vectorized, on <code>float[]</code> if
+   * <code>precision=float</code> and the accumulator takes them;
+   * <code>scalar</code> calls <code>add</code>
+   * one element at a time; <code>mapped</code> calls
+   * <code>addAll</code> on the same values in a mapped file.
+   */
+  @Param({ "bulk", "scalar", "mapped", })
+  String kernel;
+
+  @Override
+  final boolean mapped () { return "mapped".equals(kernel); }
+
+  @Override
+  final boolean usesFloats () { return "bulk".equals(kernel); }
+
   @Override
   public final double[] operation (final Accumulator ac,
                                    final double[] z0,
                                    final double[] z1) {
-    return new double[]
-      { ac.clear().addAll(z0).doubleValue() }; }
+    return switch (kernel) {
+      case "bulk" -> {
+        final FloatArrayAccumulator f = floats(ac.clear());
+        yield new double[] {
+          (null == f)
+          ? ac.addAll(z0).doubleValue()
+          : f.addAll(f0).doubleValue() }; }
+      case "scalar" -> {
+        ac.clear();
+        for (final double zi : z0) { ac.add(zi); }
+        yield new double[] { ac.doubleValue() }; }
+      case "mapped" -> new double[]
+        { addAll(ac.clear(),m0).doubleValue() };
+      default -> throw new UnsupportedOperationException(kernel); }; }
 
   public static final void main (final String[] args)  {
     Defaults.run("TotalSum"); } }
@@ -3,6 +3,7 @@ package nzqr.jmh.benchmarks.arithmetic;
 import java.math.BigInteger;
 
 import nzqr.java.numbers.UnboundedNatural;
+import org.openjdk.jmh.annotations.AuxCounters;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Param;
@@ -18,9 +19,13 @@ import nzqr.openjdk.math.BigIntegerJDK;
 import org.openjdk.jmh.infra.Blackhole;
 
 /** Benchmark arithmetic operations on various number classes.
+ * <p>
+ * {@link Counters} reports operations (pairs of operands),
+ * operand bytes, and operand limbs (32 bit words), so results
+ * for different <code>nbytes</code> can be compared.
  *
  * @author palisades dot lakes at gmail dot com
- * @version 2024-01-20
+ * @version 2026-10-17
  */
 
 @State(Scope.Thread)
@@ -82,6 +87,10 @@ public abstract class Base {
   // value
   Object[] p;
 
+  // operand bytes and limbs in x0 and x1, for the counters
+  double bytes;
+  double limbs;
+
   //--------------------------------------------------------------
   /** This is what is timed. */
 
@@ -106,13 +115,40 @@ public abstract class Base {
     y0 = fromBigInteger(x0,numberClassName);
     y1 = fromBigInteger(x1,numberClassName);
     p = new Object[y0.length];
+    bytes = 0.0;
+    limbs = 0.0;
+    for (final BigInteger[] x : new BigInteger[][] { x0, x1, }) {
+      for (final BigInteger xi : x) {
+        final int b = xi.bitLength();
+        bytes += (b + 7) / 8;
+        limbs += (b + 31) / 32; } }
   }
 
+  //--------------------------------------------------------------
+
+  /** Operations, operand bytes and limbs, as secondary
+   * results, normalized by time like the primary result.
+   */
+
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  @State(Scope.Thread)
+  public static class Counters {
+    public double elements;
+    public double bytes;
+    public double limbs;
+    @Setup(Level.Iteration)
+    public final void reset () {
+      elements = 0.0; bytes = 0.0; limbs = 0.0; } }
+
   @Benchmark
-  public final Object bench (final Blackhole blackhole) {
+  public final Object bench (final Blackhole blackhole,
+                             final Counters counters) {
     final int n = y0.length;
     for (int i=0;i<n;i++) { p[i] = operation(y0[i],y1[i]); }
     blackhole.consume(p);
+    counters.elements += n;
+    counters.bytes += bytes;
+    counters.limbs += limbs;
     return p; }
 
   //--------------------------------------------------------------
@@ -1,6 +1,6 @@
 # nzqr-jmh
 # palisades dot lakes at gmail dot com
-# version 2019-04-08
+# version 2026-10-17
 #-----------------------------------------------------------------
 if (file.exists('e:/porta/projects/nzqr-jmh')) {
   setwd('e:/porta/projects/nzqr-jmh')
@@ -11,7 +11,10 @@ if (file.exists('e:/porta/projects/nzqr-jmh')) {
 }
 source('src/scripts/r/functions.r')
 #-----------------------------------------------------------------
-accuracy <- read.accuracy(benchmarks=c('Dot','L2','Sum'))
+# output/<benchmark>/ folders, as written by accumulate.Base
+accuracy <- read.accuracy(
+  benchmarks=c('TotalDot','TotalL2Norm','TotalSum',
+               'PartialDots','PartialL2s','PartialSums'))
 summary(accuracy)
 #-----------------------------------------------------------------
 accuracy.plot(
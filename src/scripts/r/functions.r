@@ -1,6 +1,6 @@
 # nzqr-jmh
 # palisades dot lakes at gmail dot com
-# version 2019-05-01
+# version 2026-10-17
 #-----------------------------------------------------------------
 # libraries
 #-----------------------------------------------------------------
@@ -36,7 +36,7 @@ accuracy.files <- function (
   
   data.folder <- paste(parent.folder,benchmark,sep='/')
   print(data.folder)
-  pattern <- paste('[A-Za-z]+-[a-z]+-',dt.pattern,'.csv',sep='')
+  pattern <- paste('[A-Za-z0-9_]+-[a-z]+-',dt.pattern,'.csv',sep='')
   files <- list.files(
     path=data.folder,pattern=pattern,full.names=TRUE) 
   files }
@@ -59,7 +59,7 @@ read.accuracy <- function (
     for (f in files) {
       #print(f)
       tmp <- read.csv(file=f,as.is=TRUE)
-      tmp$residual <- tmp$truth - tmp$est
+      # residual as written, est - truth
       tmp$fresidual <- tmp$residual / max(tmp$truth,1)
       raw <- rbind(raw,tmp) } }
   
@@ -198,6 +198,9 @@ read.runtimes <- function (
   baseline='DoubleAccumulator') {
   data.file <- paste(folder,paste(prefix,'csv',sep='.'),sep='/')
   data <- read.csv(file=data.file,as.is=TRUE)
+  # drop secondary results (counters, profilers),
+  # eg 'TotalSum.bench:elements', see the -wide.csv file
+  data <- data[!grepl(':',data$Benchmark,fixed=TRUE),]
   
   colnames(data)[which(names(data) == 'Param..dim')] <- 'dim'
   colnames(data)[which(names(data) == 'Score')] <- 'ms'
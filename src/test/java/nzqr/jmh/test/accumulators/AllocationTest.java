@@ -0,0 +1,275 @@
+package nzqr.jmh.test.accumulators;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import com.sun.management.ThreadMXBean;
+
+import nzqr.java.accumulators.Accumulator;
+import nzqr.java.numbers.Doubles;
+import nzqr.java.prng.Generator;
+import nzqr.java.prng.Generators;
+import nzqr.jmh.accumulators.BigDecimalAccumulator;
+import nzqr.jmh.accumulators.DotKAccumulator;
+import nzqr.jmh.accumulators.DoubleFmaAccumulator;
+import nzqr.jmh.accumulators.DoubleFmaVectorAccumulator;
+import nzqr.jmh.accumulators.ERationalAccumulator;
+import nzqr.jmh.accumulators.FloatArrayAccumulator;
+import nzqr.jmh.accumulators.FloatFmaAccumulator;
+import nzqr.jmh.accumulators.KahanFmaAccumulator;
+import nzqr.jmh.accumulators.RatioAccumulator;
+import nzqr.jmh.accumulators.ZhuHayesBranch;
+import nzqr.jmh.accumulators.ZhuHayesGCAccumulator;
+import nzqr.jmh.accumulators.ZhuHayesGCBranch;
+
+//----------------------------------------------------------------
+/** Bytes allocated per call of accumulator hot paths,
+ * from <code>ThreadMXBean.getCurrentThreadAllocatedBytes</code>,
+ * after enough calls for C2 to compile them, so escape
+ * analysis has removed what it can, eg, Vector API boxes.
+ * <p>
+ * {@link #zeroAllocation()} fails if any operation of the
+ * approximate and binned accumulators, scalar or bulk, or
+ * reading the result, allocates in every one of a few measured
+ * rounds (compilation may still be finishing in the first).
+ * That includes compacting the bins of
+ * <code>ZhuHayesGCAccumulator:noalloc</code>, mid sum and in
+ * <code>doubleValue()</code>; <code>ZhuHayesGCBranch</code>
+ * allocates new bins when it compacts, so only its adds are
+ * checked.
+ * Each accumulator is measured in its own JVM, like a JMH fork:
+ * in a shared JVM, Vector API call sites profiled with other
+ * accumulators' vectors may no longer be intrinsified, and box.
+ * <p>
+ * {@link #bigNumbers()} only prints bytes per element for the
+ * exact big number accumulators.
+ * <p>
+ * <pre>
+ * mvn -q test -Dtest=nzqr/jmh/test/accumulators/AllocationTest > AllocationTest.txt
+ * </pre>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+@SuppressWarnings("unchecked")
+public final class AllocationTest {
+
+  //--------------------------------------------------------------
+
+  private static final int DIM = 1023;
+
+  private static final ThreadMXBean THREADS =
+    (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private static final double[] Z0;
+  private static final double[] Z1;
+  private static final float[] F0;
+  private static final float[] F1;
+
+  static {
+    final Generator g = Generators.make("uniform",DIM);
+    Z0 = (double[]) g.next();
+    Z1 = (double[]) g.next();
+    F0 = new float[DIM];
+    F1 = new float[DIM];
+    for (int i=0;i<DIM;i++) {
+      F0[i] = (float) Z0[i];
+      F1[i] = (float) Z1[i]; } }
+
+  /** Accumulators declared allocation free, by label,
+   * <code>class:mode</code> where there are modes.
+   */
+  private static final Map<String,Supplier<Accumulator>> ZERO =
+    new LinkedHashMap<>();
+  static {
+    ZERO.put("DoubleFmaAccumulator",DoubleFmaAccumulator::make);
+    ZERO.put("DoubleFmaVectorAccumulator",DoubleFmaVectorAccumulator::make);
+    ZERO.put("DotKAccumulator",DotKAccumulator::make);
+    ZERO.put("KahanFmaAccumulator",KahanFmaAccumulator::make);
+    ZERO.put("FloatFmaAccumulator",FloatFmaAccumulator::make);
+    ZERO.put("ZhuHayesBranch",ZhuHayesBranch::make);
+    ZERO.put("ZhuHayesGCBranch",ZhuHayesGCBranch::make);
+    ZERO.put("ZhuHayesGCAccumulator:noalloc",
+      () -> ZhuHayesGCAccumulator.make("noalloc")); }
+
+  private static final Map<String,Supplier<Accumulator>> BIG =
+    new LinkedHashMap<>();
+  static {
+    BIG.put("BigDecimalAccumulator",BigDecimalAccumulator::make);
+    BIG.put("BigDecimalAccumulator:naive",
+      () -> BigDecimalAccumulator.make("naive"));
+    BIG.put("ERationalAccumulator",ERationalAccumulator::make);
+    BIG.put("RatioAccumulator",RatioAccumulator::make); }
+
+  /** More adds than <code>ZhuHayesGCAccumulator</code> takes
+   * between compactions.
+   */
+  private static final int COMPACT_ADDS =
+    (1 << (Doubles.SIGNIFICAND_BITS / 2)) + DIM;
+
+  /** Accumulators that allocate new bins whenever they compact,
+   * by design, so only their adds are checked.
+   */
+  private static final Set<String> ADDS_ONLY =
+    Set.of("ZhuHayesGCBranch");
+
+  /** Operations too slow for many calls. */
+  private static final Set<String> LONG = Set.of("compact");
+
+  //--------------------------------------------------------------
+
+  /** Fewest bytes allocated per call, over up to
+   * <code>rounds</code> rounds of <code>calls</code> calls,
+   * after <code>warmup</code> calls; stops at the first round
+   * that allocates nothing.
+   */
+
+  private static final double bytesPerCall (final Runnable op,
+                                            final int warmup,
+                                            final int calls,
+                                            final int rounds) {
+    for (int i=0;i<warmup;i++) { op.run(); }
+    double min = Double.POSITIVE_INFINITY;
+    for (int r=0;r<rounds;r++) {
+      final long start = THREADS.getCurrentThreadAllocatedBytes();
+      for (int i=0;i<calls;i++) { op.run(); }
+      final long bytes = THREADS.getCurrentThreadAllocatedBytes() - start;
+      min = Math.min(min,((double) bytes)/calls);
+      if (0.0 == min) { break; } }
+    return min; }
+
+  /** Each starts from {@link Accumulator#clear()}, so exact
+   * accumulators don't grow from call to call.
+   * With <code>results</code>, <code>doubleValue</code> reads
+   * the result after a bulk add, and, for
+   * <code>ZhuHayesGCAccumulator</code>, <code>compact</code>
+   * adds enough values to compact the bins mid sum.
+   */
+
+  private static final Map<String,Runnable> ops (final Accumulator a,
+                                                 final boolean results) {
+    final Map<String,Runnable> ops = new LinkedHashMap<>();
+    ops.put("add", () -> {
+      a.clear();
+      for (final double z : Z0) { a.add(z); } });
+    ops.put("add2", () -> {
+      a.clear();
+      for (final double z : Z0) { a.add2(z); } });
+    ops.put("addProduct", () -> {
+      a.clear();
+      for (int i=0;i<DIM;i++) { a.addProduct(Z0[i],Z1[i]); } });
+    ops.put("addAll", () -> a.clear().addAll(Z0));
+    ops.put("add2All", () -> a.clear().add2All(Z0));
+    ops.put("addProducts", () -> a.clear().addProducts(Z0,Z1));
+    if (results) {
+      ops.put("doubleValue", () -> a.clear().addAll(Z0).doubleValue()); }
+    if (results && (a instanceof ZhuHayesGCAccumulator)) {
+      ops.put("compact", () -> {
+        a.clear();
+        for (int i=0;i<COMPACT_ADDS;i++) { a.add(Z0[i % DIM]); }
+        a.doubleValue(); }); }
+    if (a instanceof final FloatArrayAccumulator f) {
+      ops.put("addAll(float[])", () -> { f.clear(); f.addAll(F0); });
+      ops.put("add2All(float[])", () -> { f.clear(); f.add2All(F0); });
+      ops.put("addProducts(float[])",
+        () -> { f.clear(); f.addProducts(F0,F1); }); }
+    return ops; }
+
+  /** Bytes per call of <code>op</code>, after warming up long
+   * enough for C2 to compile it.
+   */
+
+  private static final double bytesPerCall (final String name,
+                                            final Runnable op) {
+    return
+      LONG.contains(name)
+      ? bytesPerCall(op,5,1,10)
+      : bytesPerCall(op,20_000,1_000,10); }
+
+  //--------------------------------------------------------------
+
+  /** Prints <code>name bytes</code> for each operation of
+   * the accumulator labeled <code>args[0]</code>, for
+   * {@link #fork(String)}.
+   */
+
+  public static final void main (final String[] args) {
+    final Accumulator a = ZERO.get(args[0]).get();
+    final boolean results = ! ADDS_ONLY.contains(args[0]);
+    for (final Map.Entry<String,Runnable> op : ops(a,results).entrySet()) {
+      System.out.println(
+        op.getKey() + "\t"
+        + bytesPerCall(op.getKey(),op.getValue())); } }
+
+  /** Run {@link #main(String[])} in a new JVM, with this one's
+   * arguments and class path.
+   */
+
+  private static final Map<String,Double> fork (final String label)
+    throws IOException, InterruptedException {
+    final List<String> command = new ArrayList<>();
+    command.add(
+      Path.of(System.getProperty("java.home"),"bin","java").toString());
+    command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(AllocationTest.class.getName());
+    command.add(label);
+    final Process p =
+      new ProcessBuilder(command).redirectErrorStream(true).start();
+    final Map<String,Double> bytes = new LinkedHashMap<>();
+    try (final BufferedReader r =
+      new BufferedReader(new InputStreamReader(p.getInputStream()))) {
+      String line;
+      while (null != (line = r.readLine())) {
+        final String[] fields = line.split("\t");
+        if (2 == fields.length) {
+          bytes.put(fields[0],Double.valueOf(fields[1])); }
+        else {
+          System.out.println(line); } } }
+    Assertions.assertEquals(0,p.waitFor(),"fork " + label);
+    return bytes; }
+
+  @SuppressWarnings("static-method")
+  @Test
+  public final void zeroAllocation ()
+    throws IOException, InterruptedException {
+    final List<Executable> checks = new ArrayList<>();
+    for (final String label : ZERO.keySet()) {
+      for (final Map.Entry<String,Double> e : fork(label).entrySet()) {
+        final String name = label + "." + e.getKey();
+        final double bytes = e.getValue().doubleValue();
+        System.out.println(name + ": " + bytes + " bytes/call");
+        checks.add(
+          () -> Assertions.assertEquals(
+            0.0,bytes,name + " allocates")); } }
+    Assertions.assertAll(checks); }
+
+  @SuppressWarnings("static-method")
+  @Test
+  public final void bigNumbers () {
+    for (final Map.Entry<String,Supplier<Accumulator>> s : BIG.entrySet()) {
+      final Accumulator a = s.getValue().get();
+      for (final Map.Entry<String,Runnable> op : ops(a,true).entrySet()) {
+        final double bytes = bytesPerCall(op.getValue(),200,50,1);
+        System.out.println(
+          s.getKey() + "." + op.getKey() + ": " + (bytes / DIM)
+          + " bytes/element"); } } }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
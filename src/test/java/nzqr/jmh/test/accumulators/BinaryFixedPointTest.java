@@ -0,0 +1,123 @@
+package nzqr.jmh.test.accumulators;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import nzqr.jmh.accumulators.BigDecimalAccumulator;
+
+//----------------------------------------------------------------
+/** The fixed point limbs behind {@link BigDecimalAccumulator},
+ * against explicit values and its <code>"naive"</code>
+ * <code>BigDecimal</code> mode.
+ * <p>
+ * <pre>
+ * mvn -q test -Dtest=nzqr/jmh/test/accumulators/BinaryFixedPointTest test > BinaryFixedPointTest.txt
+ * </pre>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class BinaryFixedPointTest {
+
+  private static final double ULP1 = Math.ulp(1.0);
+
+  /** Check the double and exact values against naive mode. */
+
+  private static final void check (final double expected,
+                                   final BigDecimalAccumulator a,
+                                   final BigDecimalAccumulator naive) {
+    Assertions.assertEquals(expected,naive.doubleValue());
+    Assertions.assertEquals(expected,a.doubleValue());
+    Assertions.assertEquals(
+      0,((BigDecimal) naive.value()).compareTo((BigDecimal) a.value()),
+      () -> a.value() + " != " + naive.value()); }
+
+  private static final void sum (final double expected,
+                                 final double... z) {
+    final BigDecimalAccumulator a = BigDecimalAccumulator.make();
+    final BigDecimalAccumulator naive =
+      BigDecimalAccumulator.make("naive");
+    for (final double zi : z) { a.add(zi); naive.add(zi); }
+    check(expected,a,naive); }
+
+  private static final void product (final double expected,
+                                     final double z0,
+                                     final double z1) {
+    final BigDecimalAccumulator a = BigDecimalAccumulator.make();
+    final BigDecimalAccumulator naive =
+      BigDecimalAccumulator.make("naive");
+    a.addProduct(z0,z1);
+    naive.addProduct(z0,z1);
+    check(expected,a,naive); }
+
+  //--------------------------------------------------------------
+
+  @SuppressWarnings("static-method")
+  @Test
+  public final void halfEven () {
+    // ties go to the even neighbor
+    sum(1.0, 1.0,ULP1/2);
+    sum(1.0+2*ULP1, 1.0+ULP1,ULP1/2);
+    sum(-1.0, -1.0,-ULP1/2);
+    sum(-1.0-2*ULP1, -1.0-ULP1,-ULP1/2);
+    // a bit past the tie, however far down, rounds away
+    sum(1.0+ULP1, 1.0,ULP1/2,Double.MIN_VALUE);
+    sum(1.0, 1.0,ULP1/2,-Double.MIN_VALUE);
+    // 1 + 2^-26 + 2^-27 + 2^-53, a tie, down to even
+    product(1.0+0x1.8p-26, 1.0+0x1p-26,1.0+0x1p-27);
+    // 1.5 + 2^-52 + 2^-53, a tie, up to even
+    product(1.5+2*ULP1, 1.5,1.0+ULP1);
+    // largest double, and the tie just past it, to infinity
+    sum(Double.MAX_VALUE, Double.MAX_VALUE,Math.ulp(Double.MAX_VALUE)/4);
+    sum(Double.POSITIVE_INFINITY,
+      Double.MAX_VALUE,Math.ulp(Double.MAX_VALUE)/2); }
+
+  @SuppressWarnings("static-method")
+  @Test
+  public final void subnormal () {
+    sum(2*Double.MIN_VALUE, Double.MIN_VALUE,Double.MIN_VALUE);
+    sum(Math.nextDown(Double.MIN_NORMAL),
+      Double.MIN_NORMAL,-Double.MIN_VALUE);
+    sum(0.0, Double.MIN_NORMAL,-Double.MIN_NORMAL);
+    // products below the subnormals
+    product(0.0, Double.MIN_VALUE,0.5);
+    product(Double.MIN_VALUE, Double.MIN_VALUE,0.75);
+    product(2*Double.MIN_VALUE, Double.MIN_VALUE,1.5);
+    product(-2*Double.MIN_VALUE, -Double.MIN_VALUE,1.5);
+    product(0.0, Double.MIN_VALUE,Double.MIN_VALUE);
+    product(Double.MIN_VALUE, Double.MIN_NORMAL,0x1p-52);
+    // the least significant limb bit, exactly
+    final BigDecimalAccumulator a = BigDecimalAccumulator.make();
+    final BigDecimalAccumulator naive =
+      BigDecimalAccumulator.make("naive");
+    a.addProduct(Double.MIN_VALUE,Double.MIN_VALUE).add(Double.MIN_VALUE);
+    naive.addProduct(Double.MIN_VALUE,Double.MIN_VALUE).add(Double.MIN_VALUE);
+    check(Double.MIN_VALUE,a,naive); }
+
+  /** Enough adds of all-ones significands, of both signs, to
+   * propagate the pending carries mid sum.
+   */
+
+  @SuppressWarnings("static-method")
+  @Test
+  public final void carries () {
+    final double z = Math.scalb(Math.nextDown(1.0),40);
+    final double y = -Math.nextDown(2.0);
+    final int n = (1 << 29) + 1000;
+    final BigDecimalAccumulator a = BigDecimalAccumulator.make();
+    for (int i=0;i<n;i++) { a.add(z).addProduct(z,y); }
+    final BigDecimal bz = new BigDecimal(z);
+    final BigDecimal expected =
+      bz.add(bz.multiply(new BigDecimal(y)))
+      .multiply(BigDecimal.valueOf(n));
+    Assertions.assertEquals(
+      0,expected.compareTo((BigDecimal) a.value()),
+      () -> a.value() + " != " + expected);
+    Assertions.assertEquals(expected.doubleValue(),a.doubleValue()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
@@ -0,0 +1,87 @@
+package nzqr.jmh.test.accumulators;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import nzqr.java.accumulators.Accumulator;
+import nzqr.java.test.Common;
+import nzqr.java.test.accumulators.EFloatAccumulator;
+import nzqr.jmh.accumulators.IFastAccumulator;
+
+//----------------------------------------------------------------
+/** Bounded mode {@link IFastAccumulator}, which distills its
+ * buffer every {@link IFastAccumulator#MIN_THRESHOLD} values
+ * here, through the same cases as {@link SumTest}, with inputs
+ * long enough to distill several times.
+ * <p>
+ * <pre>
+ * mvn -q test -Dtest=nzqr/jmh/test/accumulators/IFastAccumulatorTest test > IFastAccumulatorTest.txt
+ * </pre>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class IFastAccumulatorTest {
+
+  private static final int DIM =
+    (4 * IFastAccumulator.MIN_THRESHOLD) + 1;
+
+  private static final List<Accumulator> bounded () {
+    return List.of(
+      IFastAccumulator.make(IFastAccumulator.MIN_THRESHOLD),
+      IFastAccumulator.make("bounded")); }
+
+  @SuppressWarnings("static-method")
+  @Test
+  public final void infiniteSum () {
+    Common.infinityTests(bounded()); }
+
+  @SuppressWarnings("static-method")
+  @Test
+  public final void overflowSum () {
+    Common.overflowTests(bounded()); }
+
+  @SuppressWarnings("static-method")
+  @Test
+  public final void zeroSum () {
+    Common.zeroSumTests(Common.zeroSumGenerators(DIM),bounded()); }
+
+  @SuppressWarnings("static-method")
+  @Test
+  public final void sum () {
+    Common.sumTests(
+      Common.generators(DIM),bounded(),EFloatAccumulator.make()); }
+
+  @SuppressWarnings("static-method")
+  @Test
+  public final void l2 () {
+    Common.l2Tests(
+      Common.generators(DIM),bounded(),EFloatAccumulator.make()); }
+
+  @SuppressWarnings("static-method")
+  @Test
+  public final void dot () {
+    Common.dotTests(
+      Common.generators(DIM),bounded(),EFloatAccumulator.make()); }
+
+  /** An overflowed partial sum survives merging. */
+
+  @SuppressWarnings("static-method")
+  @Test
+  public final void mergeOverflow () {
+    final IFastAccumulator a = IFastAccumulator.make("bounded");
+    a.add(Double.MAX_VALUE);
+    a.add(Double.MAX_VALUE);
+    Assertions.assertEquals(
+      Double.POSITIVE_INFINITY,a.doubleValue());
+    final IFastAccumulator b = IFastAccumulator.make("bounded");
+    b.add(1.0);
+    Assertions.assertEquals(
+      Double.POSITIVE_INFINITY,b.merge(a).doubleValue()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
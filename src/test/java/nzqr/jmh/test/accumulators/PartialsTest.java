@@ -0,0 +1,69 @@
+package nzqr.jmh.test.accumulators;
+
+import static nzqr.jmh.test.accumulators.Shared.accumulators;
+
+import java.util.function.BiConsumer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import nzqr.java.accumulators.Accumulator;
+import nzqr.java.accumulators.BigFloatAccumulator;
+import nzqr.java.prng.Generator;
+import nzqr.java.test.Common;
+
+//----------------------------------------------------------------
+/** Prefix sums, sums of squares and dot products of the exact
+ * accumulators, against rounding a {@link BigFloatAccumulator}
+ * after every element.
+ * <p>
+ * <pre>
+ * mvn -q test -Dtest=nzqr/jmh/test/accumulators/PartialsTest test > PartialsTest.txt
+ * </pre>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+@SuppressWarnings("unchecked")
+public final class PartialsTest {
+
+  /** Correctly rounded prefixes, adding element
+   * <code>i</code> with <code>add.accept(exact,i)</code>.
+   */
+
+  private static final double[] prefixes (final int n,
+                                          final BiConsumer<Accumulator,Integer> add) {
+    final Accumulator exact = BigFloatAccumulator.make();
+    final double[] s = new double[n];
+    for (int i=0;i<n;i++) {
+      add.accept(exact,Integer.valueOf(i));
+      s[i] = exact.doubleValue(); }
+    return s; }
+
+  @SuppressWarnings("static-method")
+  @Test
+  public final void partials () {
+    for (final Generator g : Common.generators(Shared.TEST_DIM)) {
+      final double[] x0 = (double[]) g.next();
+      final double[] x1 = (double[]) g.next();
+      final int n = x0.length;
+      final double[] sums =
+        prefixes(n,(a,i) -> a.add(x0[i.intValue()]));
+      final double[] l2s =
+        prefixes(n,(a,i) -> a.add2(x0[i.intValue()]));
+      final double[] dots =
+        prefixes(n,(a,i) -> a.addProduct(x0[i.intValue()],x1[i.intValue()]));
+      for (final Accumulator a : Common.makeAccumulators(accumulators())) {
+        final String name =
+          a.getClass().getSimpleName() + " " + g.name();
+        Assertions.assertArrayEquals(
+          sums,a.clear().partialSums(x0),name + " partialSums");
+        Assertions.assertArrayEquals(
+          l2s,a.clear().partialL2s(x0),name + " partialL2s");
+        Assertions.assertArrayEquals(
+          dots,a.clear().partialDots(x0,x1),name + " partialDots"); } } }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
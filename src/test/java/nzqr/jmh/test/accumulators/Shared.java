@@ -17,10 +17,13 @@ public final class Shared {
     return
       List.of(
         //,
+        "nzqr.jmh.accumulators.AdaptiveAccumulator",
+        "nzqr.jmh.accumulators.BigDecimalAccumulator",
         "nzqr.jmh.accumulators.IFastAccumulator",
         "nzqr.jmh.accumulators.ZhuHayesGCAccumulator",
         "nzqr.jmh.accumulators.ZhuHayesGCBranch",
-        "nzqr.jmh.accumulators.ZhuHayesBranch"
+        "nzqr.jmh.accumulators.ZhuHayesBranch",
+        "nzqr.jmh.accumulators.XSumAccumulator"
         // "nzqr.java.accumulators.RationalFloatAccumulator"
         // ,
         // // Same as non-strict, just slower
@@ -30,7 +33,6 @@ public final class Shared {
         // "nzqr.jmh.accumulators.FloatAccumulator",
         // "nzqr.jmh.accumulators.FloatFmaAccumulator",
         // // Too slow to keep testing
-        // "nzqr.jmh.accumulators.BigDecimalAccumulator",
         // "nzqr.jmh.accumulators.BigFractionAccumulator",
         // "nzqr.java.accumulators.DoubleFmaAccumulator",
         // "nzqr.jmh.accumulators.KahanFmaAccumulator",
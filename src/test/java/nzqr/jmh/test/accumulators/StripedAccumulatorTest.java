@@ -0,0 +1,95 @@
+package nzqr.jmh.test.accumulators;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import nzqr.java.accumulators.Accumulator;
+import nzqr.java.accumulators.BigFloatAccumulator;
+import nzqr.java.prng.Generator;
+import nzqr.java.prng.Generators;
+import nzqr.jmh.accumulators.StripedAccumulator;
+
+//----------------------------------------------------------------
+/** {@link StripedAccumulator} with several threads calling
+ * <code>add</code> and <code>addProduct</code>, and another
+ * polling <code>doubleValue()</code>, against a
+ * {@link BigFloatAccumulator} of the same values.
+ * <p>
+ * <pre>
+ * mvn -q test -Dtest=nzqr/jmh/test/accumulators/StripedAccumulatorTest test > StripedAccumulatorTest.txt
+ * </pre>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+@SuppressWarnings("unchecked")
+public final class StripedAccumulatorTest {
+
+  private static final int DIM = 1 << 16;
+
+  private static final int WRITERS =
+    Math.max(4,Runtime.getRuntime().availableProcessors());
+
+  @SuppressWarnings("static-method")
+  @Test
+  public final void concurrent () throws InterruptedException {
+    final Generator g = Generators.make("uniform",DIM);
+    final double[][] x0 = new double[WRITERS][];
+    final double[][] x1 = new double[WRITERS][];
+    final Accumulator exact = BigFloatAccumulator.make();
+    for (int t=0;t<WRITERS;t++) {
+      x0[t] = (double[]) g.next();
+      x1[t] = (double[]) g.next();
+      for (int i=0;i<DIM;i++) {
+        exact.add(x0[t][i]);
+        exact.addProduct(x0[t][i],x1[t][i]); } }
+
+    final StripedAccumulator a = StripedAccumulator.make();
+    final CountDownLatch start = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(WRITERS);
+    final AtomicBoolean failed = new AtomicBoolean(false);
+    final Thread[] writers = new Thread[WRITERS];
+    for (int t=0;t<WRITERS;t++) {
+      final double[] z0 = x0[t];
+      final double[] z1 = x1[t];
+      writers[t] = new Thread(() -> {
+        try {
+          start.await();
+          for (int i=0;i<DIM;i++) {
+            a.add(z0[i]);
+            a.addProduct(z0[i],z1[i]); } }
+        catch (final Throwable e) {
+          failed.set(true);
+          e.printStackTrace(); }
+        finally {
+          done.countDown(); } });
+      writers[t].start(); }
+
+    final int[] polls = { 0 };
+    final Thread reader = new Thread(() -> {
+      try {
+        start.await();
+        do {
+          if (! Double.isFinite(a.doubleValue())) { failed.set(true); }
+          polls[0]++; }
+        while (0 < done.getCount()); }
+      catch (final Throwable e) {
+        failed.set(true);
+        e.printStackTrace(); } });
+    reader.start();
+
+    start.countDown();
+    for (final Thread w : writers) { w.join(); }
+    reader.join();
+
+    Assertions.assertFalse(failed.get());
+    Assertions.assertTrue(0 < polls[0]);
+    Assertions.assertEquals(exact.doubleValue(),a.doubleValue()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------